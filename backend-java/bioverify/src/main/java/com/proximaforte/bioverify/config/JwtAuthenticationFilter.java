@@ -1,11 +1,14 @@
 package com.proximaforte.bioverify.config;
 
+import com.proximaforte.bioverify.domain.User;
 import com.proximaforte.bioverify.service.JwtService;
+import com.proximaforte.bioverify.service.UserAuthStateCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,13 +23,30 @@ import java.io.IOException;
 /**
  * A filter that runs once per request to handle JWT-based authentication.
  * It intercepts incoming requests, validates the JWT, and sets the security context.
+ *
+ * The token is parsed and verified once per request. With
+ * application.security.jwt.stateless-principal.enabled, the principal is rebuilt from the token's
+ * signed claims instead of being loaded from the database, and the database is only consulted through
+ * {@link UserAuthStateCache} to reject tokens of disabled or changed users. Tokens issued without those
+ * claims fall back to loading the user.
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserAuthStateCache userAuthStateCache;
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   UserAuthStateCache userAuthStateCache,
+                                   @Value("${application.security.jwt.stateless-principal.enabled:false}") boolean statelessPrincipal) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.userAuthStateCache = userAuthStateCache;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -36,7 +56,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final Claims claims;
 
         // If there's no Authorization header or it doesn't start with "Bearer ",
         // pass the request to the next filter in the chain.
@@ -45,15 +65,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extract the JWT from the "Bearer " prefix.
+        // Extract the JWT from the "Bearer " prefix and verify it once.
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        claims = jwtService.parseToken(jwt);
 
         // If we have a user email and the user is not already authenticated...
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            // If the token is valid for this user...
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(claims);
+            if (userDetails != null) {
                 // Create an authentication token.
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
@@ -70,4 +89,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Always pass the request down the filter chain.
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * @return The user the token authenticates, or null if it must not be honoured.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            User principal = jwtService.principalFromClaims(claims);
+            if (principal != null) {
+                return userAuthStateCache.isCurrent(principal) ? principal : null;
+            }
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        return jwtService.isTokenValid(claims, userDetails) ? userDetails : null;
+    }
 }
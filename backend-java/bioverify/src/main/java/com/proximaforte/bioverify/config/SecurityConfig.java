@@ -1,5 +1,6 @@
 package com.proximaforte.bioverify.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -80,6 +81,8 @@ public class SecurityConfig {
                 // Disable CSRF for stateless JWT authentication
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches of streamed responses (SSE, StreamingResponseBody) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // === PUBLIC ENDPOINTS (No authentication required) ===
                         .requestMatchers("/api/v1/auth/**").permitAll()          // Authentication endpoints
                         .requestMatchers("/api/v1/verification/**").permitAll()  // Public verification endpoints
@@ -147,13 +150,19 @@ public class SecurityConfig {
         configuration.setAllowedHeaders(Arrays.asList(
             "Authorization",      // JWT tokens
             "Content-Type",       // JSON/form data
-            "X-Requested-With"    // AJAX request identification
+            "X-Requested-With",   // AJAX request identification
+            "Range",              // Partial/resumed file downloads
+            "If-None-Match"       // Conditional file downloads
         ));
         
         // Headers that the client can access from the response
         configuration.setExposedHeaders(Arrays.asList(
             "Authorization",      // Updated JWT tokens
-            "X-Total-Count"       // Pagination information
+            "X-Total-Count",      // Pagination information
+            "X-Next-Cursor",      // Keyset pagination cursor for the next page
+            "ETag",               // File download validators
+            "Accept-Ranges",
+            "Content-Range"
         ));
         
         // Allow credentials (cookies, authorization headers) in CORS requests
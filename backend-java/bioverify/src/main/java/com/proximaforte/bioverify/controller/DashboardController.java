@@ -3,13 +3,18 @@ package com.proximaforte.bioverify.controller;
 import com.proximaforte.bioverify.domain.User;
 import com.proximaforte.bioverify.dto.DashboardStatsDto;
 import com.proximaforte.bioverify.service.DashboardService;
+import com.proximaforte.bioverify.service.TenantEventService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -17,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final TenantEventService tenantEventService;
 
     /**
      * Retrieves aggregated statistics for the tenant performance dashboard.
@@ -31,4 +37,24 @@ public class DashboardController {
         DashboardStatsDto stats = dashboardService.getDashboardStats(currentUser);
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * Opens a server-sent event stream of live updates for the tenant, replacing polling of the
+     * stats and job endpoints. The current stats are sent immediately, then:
+     * - "dashboard-stats": a DashboardStatsDto whenever the figures change
+     * - "bulk-job": a BulkJobDto whenever a bulk verification job changes state
+     * - "payroll-export": a PayrollExportLogDto whenever a payroll export changes state
+     * Accessible only by Tenant Admins.
+     *
+     * @param currentUser The currently authenticated user.
+     * @return The event stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('TENANT_ADMIN')")
+    public SseEmitter streamDashboardEvents(@AuthenticationPrincipal User currentUser) {
+        UUID tenantId = currentUser.getTenant().getId();
+        SseEmitter emitter = tenantEventService.subscribe(tenantId);
+        tenantEventService.send(tenantId, emitter, TenantEventService.DASHBOARD_STATS, dashboardService.getDashboardStats(tenantId));
+        return emitter;
+    }
 }
\ No newline at end of file
@@ -3,14 +3,16 @@ package com.proximaforte.bioverify.controller;
 import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.domain.PayrollExportLog;
 import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.domain.enums.ExportFormat;
+import com.proximaforte.bioverify.domain.enums.ExportType;
 import com.proximaforte.bioverify.dto.*;
-import com.proximaforte.bioverify.repository.MasterListRecordRepository;
 import com.proximaforte.bioverify.repository.PayrollExportLogRepository;
 import com.proximaforte.bioverify.service.*;
 import com.proximaforte.bioverify.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -36,6 +39,9 @@ import java.util.stream.Collectors;
  * - Payroll export generation and download
  * - Document approval for flagged content
  * 
+ * Queue endpoints are keyset-paginated: pass the X-Next-Cursor value of a page as
+ * the cursor parameter to read the next one.
+ * 
  * Security is role-based with different endpoints accessible to:
  * - TENANT_ADMIN: Full access to all operations
  * - REVIEWER: Access to review queues and validation
@@ -47,9 +53,11 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MasterListRecordController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     // Service dependencies for various record operations
     private final MasterListUploadService uploadService;
-    private final MasterListRecordRepository recordRepository;
     private final BulkVerificationService bulkVerificationService;
     private final MasterListRecordService recordService;
     private final ExportService exportService;
@@ -78,16 +86,15 @@ public class MasterListRecordController {
      * Filtered based on reviewer's ministry/department assignments.
      * 
      * @param currentUser The authenticated reviewer or tenant admin
-     * @return List of records ready for final approval
+     * @param pageRequest Cursor, page size and optional department/ministry filters
+     * @return One page of records ready for final approval
      */
     @GetMapping("/queue/awaiting-review")
     @PreAuthorize("hasAnyRole('TENANT_ADMIN', 'REVIEWER')")
-    public ResponseEntity<List<MasterListRecordDto>> getAwaitingReviewQueue(@AuthenticationPrincipal User currentUser) {
-        List<MasterListRecord> records = recordService.getAwaitingReviewQueue(currentUser);
-        List<MasterListRecordDto> recordDtos = records.stream()
-                .map(MasterListRecordDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(recordDtos);
+    public ResponseEntity<List<MasterListRecordDto>> getAwaitingReviewQueue(
+            @AuthenticationPrincipal User currentUser,
+            QueuePageRequestDto pageRequest) {
+        return toPageResponse(recordService.getAwaitingReviewQueue(currentUser, pageRequest));
     }
 
     /**
@@ -95,16 +102,15 @@ public class MasterListRecordController {
      * Requires manual review to resolve discrepancies.
      * 
      * @param currentUser The authenticated reviewer or tenant admin
-     * @return List of records with data mismatches requiring resolution
+     * @param pageRequest Cursor, page size and optional department/ministry filters
+     * @return One page of records with data mismatches requiring resolution
      */
     @GetMapping("/queue/mismatched")
     @PreAuthorize("hasAnyRole('TENANT_ADMIN', 'REVIEWER')")
-    public ResponseEntity<List<MasterListRecordDto>> getMismatchedQueue(@AuthenticationPrincipal User currentUser) {
-        List<MasterListRecord> records = recordService.getMismatchedQueue(currentUser);
-        List<MasterListRecordDto> recordDtos = records.stream()
-                .map(MasterListRecordDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(recordDtos);
+    public ResponseEntity<List<MasterListRecordDto>> getMismatchedQueue(
+            @AuthenticationPrincipal User currentUser,
+            QueuePageRequestDto pageRequest) {
+        return toPageResponse(recordService.getMismatchedQueue(currentUser, pageRequest));
     }
     
     /**
@@ -112,26 +118,38 @@ public class MasterListRecordController {
      * These require manual review to approve or reject flagged documents.
      * 
      * @param currentUser The authenticated tenant admin
-     * @return List of records with invalid documents awaiting approval
+     * @param pageRequest Cursor, page size and optional department/ministry filters
+     * @return One page of records with invalid documents awaiting approval
      */
     @GetMapping("/queue/invalid-documents")
     @PreAuthorize("hasAuthority('TENANT_ADMIN')")
-    public ResponseEntity<List<MasterListRecordDto>> getInvalidDocumentQueue(@AuthenticationPrincipal User currentUser) {
-        List<MasterListRecord> records = recordService.getInvalidDocumentQueue(currentUser);
-        List<MasterListRecordDto> recordDtos = records.stream()
-                .map(MasterListRecordDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(recordDtos);
+    public ResponseEntity<List<MasterListRecordDto>> getInvalidDocumentQueue(
+            @AuthenticationPrincipal User currentUser,
+            QueuePageRequestDto pageRequest) {
+        return toPageResponse(recordService.getInvalidDocumentQueue(currentUser, pageRequest));
     }
 
     @GetMapping("/flagged/not-in-sot")
     @PreAuthorize("hasRole('TENANT_ADMIN')")
-    public ResponseEntity<List<MasterListRecordDto>> getFlaggedNotInSot(@AuthenticationPrincipal User currentUser) {
-        List<MasterListRecord> records = recordService.getFlaggedNotInSotQueue(currentUser);
-        List<MasterListRecordDto> recordDtos = records.stream()
-                .map(MasterListRecordDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(recordDtos);
+    public ResponseEntity<List<MasterListRecordDto>> getFlaggedNotInSot(
+            @AuthenticationPrincipal User currentUser,
+            QueuePageRequestDto pageRequest) {
+        return toPageResponse(recordService.getFlaggedNotInSotQueue(currentUser, pageRequest));
+    }
+
+    /**
+     * Writes a queue page as the response body, with the total (first page only) in X-Total-Count
+     * and the cursor for the following page (if any) in X-Next-Cursor.
+     */
+    private ResponseEntity<List<MasterListRecordDto>> toPageResponse(KeysetPage<MasterListRecordDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getTotalCount() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalCount()));
+        }
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PutMapping("/{recordId}")
@@ -176,14 +194,18 @@ public class MasterListRecordController {
         return ResponseEntity.ok(new MasterListRecordDto(resolvedRecord));
     }
 
+    /**
+     * Returns all of the tenant's records as a JSON array that is streamed to the client
+     * as it is read, so large tenants do not need the full list in memory.
+     */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<MasterListRecordDto>> getTenantRecords(@AuthenticationPrincipal User currentUser) {
-        List<MasterListRecord> records = recordRepository.findAllByTenantId(currentUser.getTenant().getId());
-        List<MasterListRecordDto> recordDtos = records.stream()
-                .map(MasterListRecordDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(recordDtos);
+    public ResponseEntity<StreamingResponseBody> getTenantRecords(@AuthenticationPrincipal User currentUser) {
+        UUID tenantId = currentUser.getTenant().getId();
+        StreamingResponseBody body = out -> recordService.writeTenantRecordsJson(tenantId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping("/upload")
@@ -224,15 +246,20 @@ public class MasterListRecordController {
     
     /**
      * Initiates asynchronous payroll export generation for validated records.
-     * Creates a CSV file containing all employees eligible for payroll processing.
+     * A FULL export creates a CSV file containing all employees eligible for payroll processing;
+     * a DELTA export contains only the employees added, changed or removed since the previous export.
      * 
+     * @param type FULL (default) or DELTA
+     * @param format CSV (default) or CSV_GZIP
      * @param currentUser The authenticated tenant admin
      * @return Acceptance message indicating export process started
      */
     @PostMapping("/export")
     @PreAuthorize("hasRole('TENANT_ADMIN')")
-    public ResponseEntity<?> initiateExport(@AuthenticationPrincipal User currentUser) {
-        exportService.generateExport(currentUser);
+    public ResponseEntity<?> initiateExport(@RequestParam(defaultValue = "FULL") ExportType type,
+                                            @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                            @AuthenticationPrincipal User currentUser) {
+        exportService.generateExport(currentUser, type, format);
         return ResponseEntity.accepted().body(Map.of("message", "Payroll export process has been initiated."));
     }
 
@@ -254,14 +281,17 @@ public class MasterListRecordController {
     /**
      * Downloads a previously generated payroll export file.
      * Includes security checks to ensure users can only access their tenant's files.
+     * The file is streamed from disk rather than loaded into memory. Range requests get the requested
+     * part (206), and as export files never change, If-None-Match with the returned ETag (the file's
+     * SHA-256, where recorded) gets a 304.
      * 
      * @param logId UUID of the export log entry
      * @param currentUser The authenticated tenant admin
-     * @return CSV file as downloadable attachment or error response
+     * @return The export file as downloadable attachment or error response
      */
     @GetMapping("/export-logs/{logId}/download")
     @PreAuthorize("hasRole('TENANT_ADMIN')")
-    public ResponseEntity<ByteArrayResource> downloadExportedFile(@PathVariable UUID logId, @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<Resource> downloadExportedFile(@PathVariable UUID logId, @AuthenticationPrincipal User currentUser) {
         // Retrieve export log and verify it exists
         PayrollExportLog exportLog = payrollExportLogRepository.findById(logId)
                 .orElseThrow(() -> new RuntimeException("Export log not found"));
@@ -270,18 +300,23 @@ public class MasterListRecordController {
         if (!exportLog.getTenant().getId().equals(currentUser.getTenant().getId())) {
             return ResponseEntity.status(403).build();
         }
+        if (exportLog.getFileUrl() == null) {
+            return ResponseEntity.notFound().build();
+        }
 
         try {
-            // Load file from storage and prepare for download
-            byte[] data = fileStorageService.load(exportLog.getFileUrl());
-            ByteArrayResource resource = new ByteArrayResource(data);
+            Resource resource = fileStorageService.loadAsResource(exportLog.getFileUrl());
             
-            String filename = "payroll-export-" + exportLog.getId() + ".csv";
+            ExportFormat format = exportLog.getFormat() != null ? exportLog.getFormat() : ExportFormat.CSV;
+            String filename = "payroll-export-" + exportLog.getId() + format.getFileExtension();
 
+            // Content-Length, Range and conditional requests are handled by Spring when writing the resource
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + filename)
-                    .contentType(MediaType.parseMediaType("text/csv"))
-                    .contentLength(data.length)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .eTag(exportLog.getChecksum() != null ? exportLog.getChecksum() : exportLog.getId().toString())
+                    .lastModified(resource.lastModified())
+                    .contentType(MediaType.parseMediaType(format.getContentType()))
                     .body(resource);
 
         } catch (IOException e) {
@@ -289,4 +324,40 @@ public class MasterListRecordController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Downloads the JSON manifest of a previously generated payroll export, which describes the export
+     * file and, for a delta export, the base export it applies to.
+     *
+     * @param logId UUID of the export log entry
+     * @param currentUser The authenticated tenant admin
+     * @return The manifest, or 404 for exports without one
+     */
+    @GetMapping("/export-logs/{logId}/manifest")
+    @PreAuthorize("hasRole('TENANT_ADMIN')")
+    public ResponseEntity<ByteArrayResource> downloadExportManifest(@PathVariable UUID logId, @AuthenticationPrincipal User currentUser) {
+        PayrollExportLog exportLog = payrollExportLogRepository.findById(logId)
+                .orElseThrow(() -> new RuntimeException("Export log not found"));
+
+        // Security check: Ensure user can only access their tenant's exports
+        if (!exportLog.getTenant().getId().equals(currentUser.getTenant().getId())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (exportLog.getManifestUrl() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            byte[] data = fileStorageService.load(exportLog.getManifestUrl());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=payroll-export-" + exportLog.getId() + ".manifest.json")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(data.length)
+                    .body(new ByteArrayResource(data));
+
+        } catch (IOException e) {
+            log.error("Error loading manifest for export log {}: {}", logId, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 }
\ No newline at end of file
@@ -30,7 +30,8 @@ public class UserController {
 
     @GetMapping("/me/record")
     public ResponseEntity<MasterListRecordDto> getCurrentUserRecord(@AuthenticationPrincipal User user) {
-        MasterListRecord attachedRecord = user.getMasterListRecord();
+        // Looked up by user ID, as the principal may be rebuilt from token claims without its associations
+        MasterListRecord attachedRecord = recordRepository.findByUserId(user.getId()).orElse(null);
         if (attachedRecord == null) {
             return ResponseEntity.notFound().build();
         }
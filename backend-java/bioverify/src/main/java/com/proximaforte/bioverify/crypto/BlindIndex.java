@@ -0,0 +1,34 @@
+package com.proximaforte.bioverify.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the blind indexes (psnHash, ssidHash, ninHash) used to look records up by an identifier
+ * without storing or keying on the identifier itself: the lower-case hex SHA-256 of its UTF-8 bytes.
+ */
+public final class BlindIndex {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private BlindIndex() {
+    }
+
+    /**
+     * @param input The identifier, already normalized by the caller.
+     * @return The 64-character hex digest, or null for a null input.
+     */
+    public static String sha256Hex(String input) {
+        if (input == null) {
+            return null;
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(md.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find SHA-256 algorithm", e);
+        }
+    }
+}
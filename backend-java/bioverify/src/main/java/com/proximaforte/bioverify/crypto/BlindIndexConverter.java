@@ -0,0 +1,47 @@
+package com.proximaforte.bioverify.crypto;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HexFormat;
+
+/**
+ * A JPA AttributeConverter that stores SHA-256 blind indexes (psnHash, ssidHash, ninHash)
+ * as their raw 32-byte digest instead of a 64-character hex string.
+ * The entity and repository layer keep working with hex strings, so existing lookups such as
+ * findByPsnHashAndTenantId are unchanged, while the unique indexes become half the size.
+ *
+ * Existing databases must convert the columns once before running with this mapping,
+ * see db/binary-blind-indexes.sql.
+ */
+@Converter
+public class BlindIndexConverter implements AttributeConverter<String, byte[]> {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * Called when writing data TO the database (and when binding query parameters).
+     * @param hexDigest The hex-encoded SHA-256 digest.
+     * @return The raw digest bytes.
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(String hexDigest) {
+        if (hexDigest == null) {
+            return null;
+        }
+        return HEX.parseHex(hexDigest);
+    }
+
+    /**
+     * Called when reading data FROM the database.
+     * @param digest The raw digest bytes from the bytea column.
+     * @return The lower-case hex encoding of the digest.
+     */
+    @Override
+    public String convertToEntityAttribute(byte[] digest) {
+        if (digest == null) {
+            return null;
+        }
+        return HEX.formatHex(digest);
+    }
+}
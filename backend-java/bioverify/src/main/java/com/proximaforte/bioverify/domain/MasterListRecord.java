@@ -1,5 +1,6 @@
 package com.proximaforte.bioverify.domain;
 
+import com.proximaforte.bioverify.crypto.BlindIndexConverter;
 import com.proximaforte.bioverify.crypto.StringCryptoConverter;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
 import jakarta.persistence.*;
@@ -21,6 +22,7 @@ import java.util.UUID;
  * 
  * - Multi-level data encryption for PII protection
  * - Dual storage: encrypted values + searchable hashes for identifiers
+ *   (hashes are stored as bytea, see db/binary-blind-indexes.sql for migrating older schemas)
  * - Workflow status tracking through RecordStatus enum
  * - Integration with external Source of Truth systems
  * - Proof of Life documentation and agent tracking
@@ -32,7 +34,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "master_list_records")
+@Table(name = "master_list_records", indexes = {
+        // Serves the keyset-paginated work queues (tenant + status, newest first)
+        @Index(name = "idx_master_list_records_queue", columnList = "tenant_id, status, created_at DESC, id DESC")
+})
 public class MasterListRecord {
 
     /** Primary key - UUID for enhanced security and distributed systems compatibility */
@@ -63,8 +68,9 @@ public class MasterListRecord {
     @Convert(converter = StringCryptoConverter.class)
     private String psn;
 
-    /** Searchable hash of PSN for database queries */
-    @Column(unique = true)
+    /** Searchable hash of PSN for database queries, stored as a raw 32-byte digest */
+    @Column(unique = true, columnDefinition = "bytea")
+    @Convert(converter = BlindIndexConverter.class)
     private String psnHash;
 
     /** State Staff ID - encrypted sensitive identifier */
@@ -72,8 +78,9 @@ public class MasterListRecord {
     @Convert(converter = StringCryptoConverter.class)
     private String ssid;
 
-    /** Searchable hash of SSID for database queries */
-    @Column(unique = true)
+    /** Searchable hash of SSID for database queries, stored as a raw 32-byte digest */
+    @Column(unique = true, columnDefinition = "bytea")
+    @Convert(converter = BlindIndexConverter.class)
     private String ssidHash;
 
     /** National Identification Number - encrypted sensitive identifier */
@@ -81,8 +88,9 @@ public class MasterListRecord {
     @Convert(converter = StringCryptoConverter.class)
     private String nin;
 
-    /** Searchable hash of NIN for database queries */
-    @Column(unique = true)
+    /** Searchable hash of NIN for database queries, stored as a raw 32-byte digest */
+    @Column(unique = true, columnDefinition = "bytea")
+    @Convert(converter = BlindIndexConverter.class)
     private String ninHash;
 
     /** Bank Verification Number - encrypted for financial security */
@@ -206,8 +214,9 @@ public class MasterListRecord {
     @Column(columnDefinition = "TEXT")
     private String originalUploadData;
 
-    /** JSON data from Source of Truth for mismatch resolution */
+    /** JSON data from Source of Truth for mismatch resolution - encrypted, as it holds the SoT identifiers */
     @Column(columnDefinition = "TEXT")
+    @Convert(converter = StringCryptoConverter.class)
     private String sotData;
 
     /** Timestamp when record was verified against external systems */
@@ -0,0 +1,31 @@
+package com.proximaforte.bioverify.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One row per record written to a running payroll export. The export's writers insert the IDs of the
+ * rows they print, from the same snapshot the file is read from, and finalizing the export links exactly
+ * those records to its log with one UPDATE ... FROM this table; the rows are then deleted.
+ *
+ * Plain ID columns are used, without foreign keys, so staging never blocks deleting a record or a log;
+ * rows left by a failed export are deleted when it is marked as failed.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(PayrollExportItemId.class)
+@Table(name = "payroll_export_items")
+public class PayrollExportItem {
+
+    @Id
+    @Column(name = "export_log_id", nullable = false)
+    private UUID exportLogId;
+
+    @Id
+    @Column(name = "record_id", nullable = false)
+    private UUID recordId;
+}
@@ -0,0 +1,21 @@
+package com.proximaforte.bioverify.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Composite primary key of {@link PayrollExportItem}.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PayrollExportItemId implements Serializable {
+    private UUID exportLogId;
+    private UUID recordId;
+}
@@ -1,5 +1,7 @@
 package com.proximaforte.bioverify.domain;
 
+import com.proximaforte.bioverify.domain.enums.ExportFormat;
+import com.proximaforte.bioverify.domain.enums.ExportType;
 import com.proximaforte.bioverify.domain.enums.JobStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -36,6 +38,47 @@ public class PayrollExportLog {
     @Column
     private String fileUrl;
 
+    /**
+     * Whether this export contains every ACTIVE record or only the changes since its base export.
+     * Null for exports created before delta exports existed, which were all full exports.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ExportType exportType;
+
+    /**
+     * For a delta export, the previous completed export its changes are relative to.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "base_export_log_id")
+    private PayrollExportLog baseExport;
+
+    /**
+     * The JSON manifest describing the export file (type, counts and base export).
+     */
+    @Column
+    private String manifestUrl;
+
+    /**
+     * The format of the export file. Null for exports created before formats were selectable (plain CSV).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ExportFormat format;
+
+    /**
+     * The size in bytes of the stored export file (after compression, for compressed formats).
+     */
+    @Column
+    private Long fileSize;
+
+    /**
+     * Hex SHA-256 of the stored export file, computed while it was written. Lets a download be verified
+     * (and serves as its ETag) without re-reading the file.
+     */
+    @Column(length = 64)
+    private String checksum;
+
     /**
      * The final status of the export job (e.g., RUNNING, COMPLETED, FAILED).
      */
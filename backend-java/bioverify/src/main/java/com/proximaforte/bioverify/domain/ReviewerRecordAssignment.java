@@ -0,0 +1,35 @@
+package com.proximaforte.bioverify.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One row per (reviewer, record) pair where the record falls in one of the reviewer's assigned
+ * departments or ministries. It is a precomputed index of each reviewer's work queue, so queue
+ * reads and workload counts are key lookups instead of department/ministry OR-matching.
+ *
+ * Rows are maintained by ReviewerAssignmentIndexService with set-based SQL; they are independent of
+ * record status (queues filter status on the joined record). Plain ID columns are used, without
+ * foreign keys, so deleting a user or record never fails on this table; stale rows never match a
+ * queue query and are removed by the nightly rebuild.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(ReviewerRecordAssignmentId.class)
+@Table(name = "reviewer_record_assignments", indexes = {
+        @Index(name = "idx_reviewer_record_assignments_record", columnList = "record_id")
+})
+public class ReviewerRecordAssignment {
+
+    @Id
+    @Column(name = "reviewer_id", nullable = false)
+    private UUID reviewerId;
+
+    @Id
+    @Column(name = "record_id", nullable = false)
+    private UUID recordId;
+}
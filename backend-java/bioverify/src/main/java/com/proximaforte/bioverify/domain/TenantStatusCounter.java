@@ -0,0 +1,35 @@
+package com.proximaforte.bioverify.domain;
+
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Number of a tenant's master list records currently in a given status.
+ *
+ * Counters are adjusted in the same transaction as every status change (see RecordStatusCounterService),
+ * so the dashboard reads one row per status instead of counting records. A periodic reconciliation
+ * recomputes them from master_list_records and corrects any drift.
+ */
+@Getter
+@Setter
+@Entity
+@IdClass(TenantStatusCounterId.class)
+@Table(name = "tenant_status_counters")
+public class TenantStatusCounter {
+
+    @Id
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private RecordStatus status;
+
+    @Column(name = "record_count", nullable = false)
+    private long recordCount;
+}
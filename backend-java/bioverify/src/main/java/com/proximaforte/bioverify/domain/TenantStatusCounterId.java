@@ -0,0 +1,22 @@
+package com.proximaforte.bioverify.domain;
+
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Composite primary key of {@link TenantStatusCounter}.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TenantStatusCounterId implements Serializable {
+    private UUID tenantId;
+    private RecordStatus status;
+}
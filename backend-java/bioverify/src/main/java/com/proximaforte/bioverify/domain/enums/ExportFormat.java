@@ -0,0 +1,17 @@
+package com.proximaforte.bioverify.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The file format of a payroll export.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV(".csv", "text/csv"),
+    CSV_GZIP(".csv.gz", "application/gzip");
+
+    private final String fileExtension;
+    private final String contentType;
+}
@@ -0,0 +1,11 @@
+package com.proximaforte.bioverify.domain.enums;
+
+/**
+ * The kind of payroll export.
+ * FULL contains every ACTIVE record; DELTA contains only the records added, changed or removed
+ * since the tenant's previous completed export (its base export).
+ */
+public enum ExportType {
+    FULL,
+    DELTA
+}
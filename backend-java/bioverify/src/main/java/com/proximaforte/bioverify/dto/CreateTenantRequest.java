@@ -17,4 +17,5 @@ public class CreateTenantRequest {
     private String clientSecretEncrypted;
     private String aesKey;
     private String iv;
+    private Integer maxConcurrentLookups;
 }
\ No newline at end of file
@@ -18,4 +18,7 @@ public class IdentitySourceConfigDto {
     private String enrollmentUrl;
     private String aesKey;
     private String iv;
+
+    // Upper bound on concurrent lookups in a batched SoT request (null = application default)
+    private Integer maxConcurrentLookups;
 }
\ No newline at end of file
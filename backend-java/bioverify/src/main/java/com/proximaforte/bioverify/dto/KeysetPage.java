@@ -0,0 +1,23 @@
+package com.proximaforte.bioverify.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result.
+ * nextCursor is null on the last page; totalCount is only computed for the first page (null otherwise).
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final Long totalCount;
+
+    public static <T> KeysetPage<T> empty() {
+        return new KeysetPage<>(Collections.emptyList(), null, 0L);
+    }
+}
@@ -3,6 +3,7 @@ package com.proximaforte.bioverify.dto;
 import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
 import lombok.Getter;
+import lombok.Setter;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -10,6 +11,21 @@ import java.util.UUID;
 
 @Getter
 public class MasterListRecordDto {
+
+    /**
+     * SELECT and FROM clauses of the list-view projection. Queries append their WHERE/ORDER BY
+     * using the aliases r (record), d (department), m (ministry) and v (validatedBy).
+     */
+    public static final String PROJECTION_SELECT =
+            "SELECT new com.proximaforte.bioverify.dto.MasterListRecordDto(" +
+            "r.id, r.wid, r.fullName, r.psn, r.ssid, r.nin, d.name, m.name, r.gradeLevel, r.salaryStructure, " +
+            "r.status, r.biometricStatus, r.validatedAt, v.email, r.createdAt, r.bvn, r.dateOfBirth, r.gender, " +
+            "r.phoneNumber, r.email, r.photoUrl, r.lastLivenessCheckDate, r.nextLivenessCheckDate) " +
+            "FROM MasterListRecord r " +
+            "LEFT JOIN r.department d " +
+            "LEFT JOIN r.ministry m " +
+            "LEFT JOIN r.validatedBy v ";
+
     private UUID id;
     private String employeeId; // WID
     private String fullName;
@@ -31,6 +47,7 @@ public class MasterListRecordDto {
     private String phoneNumber;
     private String email;
     private String photoUrl;
+    @Setter
     private List<String> documentUrls;
     
     // --- NEWLY ADDED FIELDS ---
@@ -38,6 +55,42 @@ public class MasterListRecordDto {
     private LocalDate nextLivenessCheckDate;
 
 
+    /**
+     * Projection constructor for list views, used in JPQL constructor expressions (see
+     * {@link #PROJECTION_SELECT}) so a whole list is read in one query with no entity loading.
+     * documentUrls is not part of the projection (null); list views that show documents fill it in
+     * afterwards for the whole page at once.
+     */
+    public MasterListRecordDto(UUID id, String employeeId, String fullName, String psn, String ssid, String nin,
+                               String department, String ministry, String gradeLevel, String salaryStructure,
+                               RecordStatus status, Boolean biometricStatus, Instant validatedAt, String validatedByEmail,
+                               Instant createdAt, String bvn, LocalDate dateOfBirth, String gender, String phoneNumber,
+                               String email, String photoUrl, LocalDate lastLivenessCheckDate, LocalDate nextLivenessCheckDate) {
+        this.id = id;
+        this.employeeId = employeeId;
+        this.fullName = fullName;
+        this.psn = psn;
+        this.ssid = ssid;
+        this.nin = nin;
+        this.department = department;
+        this.ministry = ministry;
+        this.gradeLevel = gradeLevel;
+        this.salaryStructure = salaryStructure;
+        this.status = status;
+        this.biometricStatus = biometricStatus;
+        this.validatedAt = validatedAt;
+        this.validatedByEmail = validatedByEmail;
+        this.createdAt = createdAt;
+        this.bvn = bvn;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+        this.photoUrl = photoUrl;
+        this.lastLivenessCheckDate = lastLivenessCheckDate;
+        this.nextLivenessCheckDate = nextLivenessCheckDate;
+    }
+
     public MasterListRecordDto(MasterListRecord record) {
         this.id = record.getId();
         this.employeeId = record.getWid(); // Mapped from wid instead of employeeId
@@ -1,6 +1,8 @@
 package com.proximaforte.bioverify.dto;
 
 import com.proximaforte.bioverify.domain.PayrollExportLog;
+import com.proximaforte.bioverify.domain.enums.ExportFormat;
+import com.proximaforte.bioverify.domain.enums.ExportType;
 import com.proximaforte.bioverify.domain.enums.JobStatus; // 1. Import JobStatus
 import lombok.Data;
 
@@ -16,6 +18,11 @@ public class PayrollExportLogDto {
     private String exportedByEmail;
     private JobStatus status; // 2. Add status field
     private String statusMessage; // 3. Add statusMessage field
+    private ExportType exportType;
+    private UUID baseExportId;
+    private ExportFormat format;
+    private Long fileSize;
+    private String checksum;
 
     public PayrollExportLogDto(PayrollExportLog log) {
         this.id = log.getId();
@@ -23,6 +30,11 @@ public class PayrollExportLogDto {
         this.recordCount = log.getRecordCount();
         this.status = log.getStatus(); // 4. Map the status
         this.statusMessage = log.getStatusMessage(); // 5. Map the message
+        this.exportType = log.getExportType() != null ? log.getExportType() : ExportType.FULL;
+        this.baseExportId = log.getBaseExport() != null ? log.getBaseExport().getId() : null;
+        this.format = log.getFormat() != null ? log.getFormat() : ExportFormat.CSV;
+        this.fileSize = log.getFileSize();
+        this.checksum = log.getChecksum();
         
         if (log.getExportedBy() != null) {
             this.exportedByEmail = log.getExportedBy().getEmail();
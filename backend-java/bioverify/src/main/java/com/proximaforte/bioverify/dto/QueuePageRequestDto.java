@@ -0,0 +1,17 @@
+package com.proximaforte.bioverify.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Query parameters accepted by the record queue endpoints.
+ */
+@Data
+public class QueuePageRequestDto {
+    // Opaque cursor from the previous page's X-Next-Cursor header (absent for the first page)
+    private String cursor;
+    private Integer size;
+    private UUID departmentId;
+    private UUID ministryId;
+}
@@ -0,0 +1,16 @@
+package com.proximaforte.bioverify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single identity (SSID/NIN pair) to look up in a tenant's Source of Truth.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SotIdentityDto {
+    private String ssid;
+    private String nin;
+}
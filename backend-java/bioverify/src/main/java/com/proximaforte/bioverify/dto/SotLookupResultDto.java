@@ -0,0 +1,32 @@
+package com.proximaforte.bioverify.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of one lookup in a batched Source of Truth request.
+ * Exactly one of: a profile (found), neither (not found), or an error message (lookup failed).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SotLookupResultDto {
+    private String ssid;
+    private String nin;
+    private boolean found;
+    private SotProfileDto profile;
+    private String error;
+
+    public static SotLookupResultDto found(SotIdentityDto identity, SotProfileDto profile) {
+        return new SotLookupResultDto(identity.getSsid(), identity.getNin(), true, profile, null);
+    }
+
+    public static SotLookupResultDto notFound(SotIdentityDto identity) {
+        return new SotLookupResultDto(identity.getSsid(), identity.getNin(), false, null, null);
+    }
+
+    public static SotLookupResultDto failed(SotIdentityDto identity, String error) {
+        return new SotLookupResultDto(identity.getSsid(), identity.getNin(), false, null, error);
+    }
+}
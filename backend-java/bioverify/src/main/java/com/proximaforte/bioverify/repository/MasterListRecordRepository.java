@@ -1,25 +1,46 @@
 package com.proximaforte.bioverify.repository;
 
-import com.proximaforte.bioverify.domain.Department;
 import com.proximaforte.bioverify.domain.MasterListRecord;
-import com.proximaforte.bioverify.domain.Ministry;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface MasterListRecordRepository extends JpaRepository<MasterListRecord, UUID> {
+public interface MasterListRecordRepository extends JpaRepository<MasterListRecord, UUID>, MasterListRecordRepositoryCustom {
 
     List<MasterListRecord> findAllByTenantId(UUID tenantId);
 
+    /**
+     * Streams a tenant's records as list-view projections, fetched from the database in batches.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(MasterListRecordDto.PROJECTION_SELECT +
+           "WHERE r.tenant.id = :tenantId " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    Stream<MasterListRecordDto> streamRecordDtosByTenantId(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Reads the document URLs of the given records in a single query, one row per (record, URL).
+     */
+    @Query("SELECT r.id AS recordId, u AS documentUrl FROM MasterListRecord r JOIN r.documentUrls u " +
+           "WHERE r.id IN :recordIds")
+    List<RecordDocumentUrl> findDocumentUrlsByRecordIds(@Param("recordIds") Collection<UUID> recordIds);
+
     Optional<MasterListRecord> findByTenantIdAndSsidHashAndNinHash(UUID tenantId, String ssidHash, String ninHash);
 
     Optional<MasterListRecord> findByUserId(UUID userId);
@@ -45,25 +66,66 @@ public interface MasterListRecordRepository extends JpaRepository<MasterListReco
     List<MasterListRecord> findAllByTenantIdAndStatusWithDetails(@Param("tenantId") UUID tenantId, @Param("status") RecordStatus status);
 
 
-    // Added LEFT JOIN FETCH for ministry and department to fix export error
+    /**
+     * Streams the records to export from a database cursor, in ID order, fetched in batches.
+     * LEFT JOIN FETCH for ministry and department avoids lazy loading while the file is written.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("SELECT r FROM MasterListRecord r " +
            "LEFT JOIN FETCH r.validatedBy " +
            "LEFT JOIN FETCH r.ministry " +
            "LEFT JOIN FETCH r.department " +
-           "WHERE r.tenant.id = :tenantId AND r.status = :status")
-    List<MasterListRecord> findAllToExport(@Param("tenantId") UUID tenantId, @Param("status") RecordStatus status);
-
-
-    @Query("SELECT r FROM MasterListRecord r WHERE r.tenant.id = :tenantId " +
-           "AND r.status IN :statuses " +
-           "AND (r.department IN :departments OR r.ministry IN :ministries)")
-    List<MasterListRecord> findRecordsByReviewerAssignments(
-            @Param("tenantId") UUID tenantId,
-            @Param("statuses") List<RecordStatus> statuses,
-            @Param("departments") Set<Department> departments,
-            @Param("ministries") Set<Ministry> ministries
-    );
-    
+           "WHERE r.tenant.id = :tenantId AND r.status = :status " +
+           "ORDER BY r.id")
+    Stream<MasterListRecord> streamAllToExport(@Param("tenantId") UUID tenantId, @Param("status") RecordStatus status);
+
+    /**
+     * Exports the current transaction's snapshot so other transactions can read the same data
+     * (SET TRANSACTION SNAPSHOT). Only valid inside a REPEATABLE READ transaction, until it ends.
+     */
+    @Query(value = "SELECT pg_export_snapshot()", nativeQuery = true)
+    String exportSnapshot();
+
+    /**
+     * Splits the tenant's records in the given status into (at most) the given number of ID ranges of
+     * equal size, returning the first ID of each range in ascending order. Each range ends where the
+     * next one starts, so together they cover every ID.
+     */
+    @Query(value = "SELECT MIN(id) AS first_id FROM (" +
+                   "SELECT id, ntile(:partitions) OVER (ORDER BY id) AS part FROM master_list_records " +
+                   "WHERE tenant_id = :tenantId AND status = :status) ranked " +
+                   "GROUP BY part ORDER BY first_id", nativeQuery = true)
+    List<UUID> findExportPartitionStarts(@Param("tenantId") UUID tenantId,
+                                         @Param("status") String status,
+                                         @Param("partitions") int partitions);
+
+    /**
+     * Streams the records a delta export must contain, in ID order: records in the exported status that
+     * have never been exported or changed since the base export, and previously exported records that
+     * have since left that status. The export log link tells "never exported" apart from "changed".
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM MasterListRecord r " +
+           "LEFT JOIN FETCH r.validatedBy " +
+           "LEFT JOIN FETCH r.ministry " +
+           "LEFT JOIN FETCH r.department " +
+           "WHERE r.tenant.id = :tenantId AND (" +
+           "(r.status = :status AND (r.payrollExportLog IS NULL OR r.updatedAt > :changedSince)) OR " +
+           "(r.status <> :status AND r.payrollExportLog IS NOT NULL AND r.updatedAt > :changedSince)) " +
+           "ORDER BY r.id")
+    Stream<MasterListRecord> streamChangesToExport(@Param("tenantId") UUID tenantId,
+                                                   @Param("status") RecordStatus status,
+                                                   @Param("changedSince") Instant changedSince);
+
+
     List<MasterListRecord> findAllByTenantIdAndStatusOrderByCreatedAtDesc(UUID tenantId, RecordStatus status);
     
     // --- NEW METHODS FOR LIVENESS CHECK SCHEDULER ---
@@ -85,4 +147,21 @@ public interface MasterListRecordRepository extends JpaRepository<MasterListReco
     long countByTenantIdAndStatus(UUID tenantId, RecordStatus status);
 
     long countByTenantIdAndStatusIn(UUID tenantId, List<RecordStatus> statuses);
-}
\ No newline at end of file
+
+    /**
+     * Counts a tenant's records per status in a single pass. Statuses with no records are not returned.
+     */
+    @Query("SELECT r.status AS status, COUNT(r) AS total FROM MasterListRecord r " +
+           "WHERE r.tenant.id = :tenantId GROUP BY r.status")
+    List<StatusCount> countByStatusForTenant(@Param("tenantId") UUID tenantId);
+
+    interface StatusCount {
+        RecordStatus getStatus();
+        long getTotal();
+    }
+
+    interface RecordDocumentUrl {
+        UUID getRecordId();
+        String getDocumentUrl();
+    }
+}
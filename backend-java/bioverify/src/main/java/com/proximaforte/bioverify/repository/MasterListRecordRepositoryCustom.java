@@ -0,0 +1,39 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Queries whose WHERE clause depends on which optional filters are set.
+ */
+public interface MasterListRecordRepositoryCustom {
+
+    /**
+     * Fetches one page of a record queue, ordered by (createdAt DESC, id DESC), as list-view
+     * projections read in a single query.
+     *
+     * @param filter The queue criteria.
+     * @param after The position of the last record of the previous page, or null for the first page.
+     * @param limit The maximum number of records to return.
+     */
+    List<MasterListRecordDto> findQueuePage(RecordQueueFilter filter, RecordCursor after, int limit);
+
+    /**
+     * Counts all records matching the queue criteria.
+     */
+    long countQueue(RecordQueueFilter filter);
+
+    /**
+     * Streams one ID range of the records to export, in ID order, with the same fetches and batching as
+     * streamAllToExport. Must be consumed (and closed) inside a transaction.
+     *
+     * @param fromId The first ID of the range (inclusive).
+     * @param toId The first ID of the next range (exclusive), or null for the last range.
+     */
+    Stream<MasterListRecord> streamExportPartition(UUID tenantId, RecordStatus status, UUID fromId, UUID toId);
+}
@@ -0,0 +1,100 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Builds JPQL with only the predicates that apply, so optional filters never
+ * bind null or empty-collection parameters.
+ */
+public class MasterListRecordRepositoryCustomImpl implements MasterListRecordRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MasterListRecordDto> findQueuePage(RecordQueueFilter filter, RecordCursor after, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(MasterListRecordDto.PROJECTION_SELECT);
+        appendWhere(jpql, parameters, filter);
+
+        if (after != null) {
+            jpql.append("AND (r.createdAt < :cursorCreatedAt OR (r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) ");
+            parameters.put("cursorCreatedAt", after.createdAt());
+            parameters.put("cursorId", after.id());
+        }
+        jpql.append("ORDER BY r.createdAt DESC, r.id DESC");
+
+        TypedQuery<MasterListRecordDto> query = entityManager.createQuery(jpql.toString(), MasterListRecordDto.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countQueue(RecordQueueFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(r) FROM MasterListRecord r ");
+        appendWhere(jpql, parameters, filter);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public Stream<MasterListRecord> streamExportPartition(UUID tenantId, RecordStatus status, UUID fromId, UUID toId) {
+        StringBuilder jpql = new StringBuilder("SELECT r FROM MasterListRecord r " +
+                "LEFT JOIN FETCH r.validatedBy " +
+                "LEFT JOIN FETCH r.ministry " +
+                "LEFT JOIN FETCH r.department " +
+                "WHERE r.tenant.id = :tenantId AND r.status = :status AND r.id >= :fromId ");
+        if (toId != null) {
+            jpql.append("AND r.id < :toId ");
+        }
+        jpql.append("ORDER BY r.id");
+
+        TypedQuery<MasterListRecord> query = entityManager.createQuery(jpql.toString(), MasterListRecord.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("status", status)
+                .setParameter("fromId", fromId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (toId != null) {
+            query.setParameter("toId", toId);
+        }
+        return query.getResultStream();
+    }
+
+    private void appendWhere(StringBuilder jpql, Map<String, Object> parameters, RecordQueueFilter filter) {
+        jpql.append("WHERE r.tenant.id = :tenantId AND r.status IN :statuses ");
+        parameters.put("tenantId", filter.tenantId());
+        parameters.put("statuses", filter.statuses());
+
+        if (filter.departmentId() != null) {
+            jpql.append("AND r.department.id = :departmentId ");
+            parameters.put("departmentId", filter.departmentId());
+        }
+        if (filter.ministryId() != null) {
+            jpql.append("AND r.ministry.id = :ministryId ");
+            parameters.put("ministryId", filter.ministryId());
+        }
+
+        if (filter.assignedReviewerId() != null) {
+            // Precomputed reviewer queue, see ReviewerRecordAssignment
+            jpql.append("AND EXISTS (SELECT 1 FROM ReviewerRecordAssignment a " +
+                    "WHERE a.reviewerId = :assignedReviewerId AND a.recordId = r.id) ");
+            parameters.put("assignedReviewerId", filter.assignedReviewerId());
+        }
+    }
+}
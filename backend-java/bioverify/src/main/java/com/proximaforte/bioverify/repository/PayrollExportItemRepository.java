@@ -0,0 +1,43 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.PayrollExportItem;
+import com.proximaforte.bioverify.domain.PayrollExportItemId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Set-based staging of the records written by a payroll export, and linking them to its log.
+ */
+@Repository
+public interface PayrollExportItemRepository extends JpaRepository<PayrollExportItem, PayrollExportItemId> {
+
+    /**
+     * Stages a chunk of written records in a single statement. Runs in the writing transaction, so the
+     * rows are visible to finalizing only once the part of the file they belong to has been written.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payroll_export_items (export_log_id, record_id) " +
+            "SELECT :logId, r.id FROM master_list_records r WHERE r.id IN (:recordIds) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForRecords(@Param("logId") UUID logId, @Param("recordIds") Collection<UUID> recordIds);
+
+    /**
+     * Links the records staged for an export to its log in a single statement, whatever they were
+     * changed to since they were written. No entities are loaded or re-saved.
+     */
+    @Modifying
+    @Query(value = "UPDATE master_list_records r SET payroll_export_log_id = i.export_log_id " +
+            "FROM payroll_export_items i " +
+            "WHERE i.export_log_id = :logId AND r.id = i.record_id", nativeQuery = true)
+    int linkRecordsToExportLog(@Param("logId") UUID logId);
+
+    @Modifying
+    @Query(value = "DELETE FROM payroll_export_items WHERE export_log_id = :logId", nativeQuery = true)
+    int deleteByExportLogId(@Param("logId") UUID logId);
+}
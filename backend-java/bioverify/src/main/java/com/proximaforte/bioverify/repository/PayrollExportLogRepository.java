@@ -1,10 +1,12 @@
 package com.proximaforte.bioverify.repository;
 
 import com.proximaforte.bioverify.domain.PayrollExportLog;
+import com.proximaforte.bioverify.domain.enums.JobStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -17,4 +19,9 @@ public interface PayrollExportLogRepository extends JpaRepository<PayrollExportL
      * @return A list of payroll export logs.
      */
     List<PayrollExportLog> findByTenantIdOrderByExportTimestampDesc(UUID tenantId);
+
+    /**
+     * Finds the tenant's most recent export with the given status, e.g. the base for a delta export.
+     */
+    Optional<PayrollExportLog> findFirstByTenantIdAndStatusOrderByExportTimestampDesc(UUID tenantId, JobStatus status);
 }
\ No newline at end of file
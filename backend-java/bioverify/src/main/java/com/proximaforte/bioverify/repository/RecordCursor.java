@@ -0,0 +1,43 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a record queue ordered by (createdAt DESC, id DESC).
+ * Clients receive it as an opaque URL-safe token and send it back to fetch the next page.
+ */
+public record RecordCursor(Instant createdAt, UUID id) {
+
+    public static RecordCursor of(MasterListRecordDto record) {
+        return new RecordCursor(record.getCreatedAt(), record.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token A token produced by {@link #encode()}.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static RecordCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid page cursor.");
+            }
+            return new RecordCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Criteria for a page of a record work queue.
+ *
+ * @param tenantId The tenant whose records are queued.
+ * @param statuses The record statuses that make up the queue.
+ * @param departmentId Optional filter on the record's department (null = any).
+ * @param ministryId Optional filter on the record's ministry (null = any).
+ * @param assignedReviewerId For reviewers: restrict to records in this reviewer's queue (null = no restriction).
+ */
+public record RecordQueueFilter(UUID tenantId,
+                                Collection<RecordStatus> statuses,
+                                UUID departmentId,
+                                UUID ministryId,
+                                UUID assignedReviewerId) {
+}
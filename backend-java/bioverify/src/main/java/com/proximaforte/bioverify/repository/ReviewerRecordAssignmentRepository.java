@@ -0,0 +1,79 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.ReviewerRecordAssignment;
+import com.proximaforte.bioverify.domain.ReviewerRecordAssignmentId;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based maintenance of the reviewer work-queue index. Each refresh deletes the affected rows and
+ * re-derives them from user_departments / user_ministries in a single statement.
+ */
+@Repository
+public interface ReviewerRecordAssignmentRepository extends JpaRepository<ReviewerRecordAssignment, ReviewerRecordAssignmentId> {
+
+    @Modifying
+    @Query(value = "DELETE FROM reviewer_record_assignments WHERE reviewer_id = :reviewerId", nativeQuery = true)
+    int deleteByReviewerId(@Param("reviewerId") UUID reviewerId);
+
+    @Modifying
+    @Query(value = "INSERT INTO reviewer_record_assignments (reviewer_id, record_id) " +
+            "SELECT u.id, r.id FROM users u " +
+            "JOIN master_list_records r ON r.tenant_id = u.tenant_id " +
+            "WHERE u.id = :reviewerId AND u.role = 'REVIEWER' " +
+            "AND (r.department_id IN (SELECT ud.department_id FROM user_departments ud WHERE ud.user_id = u.id) " +
+            "OR r.ministry_id IN (SELECT um.ministry_id FROM user_ministries um WHERE um.user_id = u.id)) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForReviewer(@Param("reviewerId") UUID reviewerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM reviewer_record_assignments WHERE record_id IN (:recordIds)", nativeQuery = true)
+    int deleteByRecordIds(@Param("recordIds") Collection<UUID> recordIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO reviewer_record_assignments (reviewer_id, record_id) " +
+            "SELECT u.id, r.id FROM master_list_records r " +
+            "JOIN users u ON u.tenant_id = r.tenant_id AND u.role = 'REVIEWER' " +
+            "WHERE r.id IN (:recordIds) " +
+            "AND (EXISTS (SELECT 1 FROM user_departments ud WHERE ud.user_id = u.id AND ud.department_id = r.department_id) " +
+            "OR EXISTS (SELECT 1 FROM user_ministries um WHERE um.user_id = u.id AND um.ministry_id = r.ministry_id)) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForRecords(@Param("recordIds") Collection<UUID> recordIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM reviewer_record_assignments", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO reviewer_record_assignments (reviewer_id, record_id) " +
+            "SELECT u.id, r.id FROM users u " +
+            "JOIN master_list_records r ON r.tenant_id = u.tenant_id " +
+            "WHERE u.role = 'REVIEWER' " +
+            "AND (EXISTS (SELECT 1 FROM user_departments ud WHERE ud.user_id = u.id AND ud.department_id = r.department_id) " +
+            "OR EXISTS (SELECT 1 FROM user_ministries um WHERE um.user_id = u.id AND um.ministry_id = r.ministry_id)) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertAll();
+
+    /**
+     * Counts, in one grouped query, the records in each of a tenant's reviewer queues that are in one
+     * of the given statuses. Reviewers with an empty queue are not returned.
+     */
+    @Query("SELECT a.reviewerId AS reviewerId, COUNT(a) AS recordCount " +
+           "FROM ReviewerRecordAssignment a JOIN MasterListRecord r ON r.id = a.recordId " +
+           "WHERE r.tenant.id = :tenantId AND r.status IN :statuses " +
+           "GROUP BY a.reviewerId")
+    List<ReviewerWorkload> countQueuesByReviewer(@Param("tenantId") UUID tenantId, @Param("statuses") Collection<RecordStatus> statuses);
+
+    interface ReviewerWorkload {
+        UUID getReviewerId();
+        long getRecordCount();
+    }
+}
@@ -0,0 +1,47 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.TenantStatusCounter;
+import com.proximaforte.bioverify.domain.TenantStatusCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TenantStatusCounterRepository extends JpaRepository<TenantStatusCounter, TenantStatusCounterId> {
+
+    List<TenantStatusCounter> findAllByTenantId(UUID tenantId);
+
+    /**
+     * Adds a (possibly negative) delta to a counter, creating the row if it does not exist yet.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tenant_status_counters (tenant_id, status, record_count) " +
+            "VALUES (:tenantId, :status, :delta) " +
+            "ON CONFLICT (tenant_id, status) DO UPDATE " +
+            "SET record_count = tenant_status_counters.record_count + EXCLUDED.record_count", nativeQuery = true)
+    int addToCount(@Param("tenantId") UUID tenantId, @Param("status") String status, @Param("delta") long delta);
+
+    /**
+     * Overwrites a counter with a recomputed value, creating the row if it does not exist yet.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tenant_status_counters (tenant_id, status, record_count) " +
+            "VALUES (:tenantId, :status, :count) " +
+            "ON CONFLICT (tenant_id, status) DO UPDATE SET record_count = EXCLUDED.record_count", nativeQuery = true)
+    int setCount(@Param("tenantId") UUID tenantId, @Param("status") String status, @Param("count") long count);
+
+    /**
+     * Reads and locks a tenant's counters, so no status change can adjust them until the caller commits.
+     */
+    @Query(value = "SELECT * FROM tenant_status_counters WHERE tenant_id = :tenantId ORDER BY status FOR UPDATE", nativeQuery = true)
+    List<TenantStatusCounter> lockAllByTenantId(@Param("tenantId") UUID tenantId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tenant_status_counters WHERE tenant_id = :tenantId", nativeQuery = true)
+    int deleteAllByTenantId(@Param("tenantId") UUID tenantId);
+}
@@ -31,10 +31,41 @@ public interface UserRepository extends JpaRepository<User, UUID> {
            "WHERE u.id = :userId")
     Optional<User> findUserWithAssignments(@Param("userId") UUID userId);
 
+    @Query("SELECT DISTINCT u FROM User u " +
+           "LEFT JOIN FETCH u.assignedMinistries " +
+           "LEFT JOIN FETCH u.assignedDepartments " +
+           "WHERE u.tenant.id = :tenantId AND u.role = :role")
+    List<User> findByTenantIdAndRoleWithAssignments(@Param("tenantId") UUID tenantId, @Param("role") Role role);
+
+    /**
+     * Loads only what is needed to tell whether a token issued to the user is still honoured.
+     */
+    @Query("SELECT u.enabled AS enabled, u.role AS role, t.id AS tenantId FROM User u " +
+           "LEFT JOIN u.tenant t WHERE u.id = :userId")
+    Optional<AuthState> findAuthStateById(@Param("userId") UUID userId);
+
     // --- NEW METHOD FOR DASHBOARD STATS ---
     /**
      * Counts the number of users for a tenant that have a specific role.
      * This will be used for counting Reviewers, Agents, and Self-Service Users.
      */
     long countByTenantIdAndRole(UUID tenantId, Role role);
+
+    /**
+     * Counts a tenant's users per role in a single pass. Roles with no users are not returned.
+     */
+    @Query("SELECT u.role AS role, COUNT(u) AS total FROM User u " +
+           "WHERE u.tenant.id = :tenantId GROUP BY u.role")
+    List<RoleCount> countByRoleForTenant(@Param("tenantId") UUID tenantId);
+
+    interface RoleCount {
+        Role getRole();
+        long getTotal();
+    }
+
+    interface AuthState {
+        boolean isEnabled();
+        Role getRole();
+        UUID getTenantId();
+    }
 }
\ No newline at end of file
@@ -39,6 +39,8 @@ public class AuthenticationService {
     private final RefreshTokenService refreshTokenService;
     private final AccountActivationTokenRepository activationTokenRepository; // NEW
     private final EmailService emailService; // NEW
+    private final TenantEventService tenantEventService;
+    private final ReviewerAssignmentIndexService reviewerAssignmentIndexService;
 
     @Value("${app.frontend.base-url}") // NEW
     private String frontendBaseUrl;
@@ -66,7 +68,13 @@ public class AuthenticationService {
                 user.setAssignedDepartments(departments);
             }
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
+        if (savedUser.getRole() == Role.REVIEWER) {
+            // Index the new reviewer's queue now rather than at the nightly rebuild
+            reviewerAssignmentIndexService.refreshForReviewer(savedUser.getId());
+        }
+        tenantEventService.markStatsChanged(tenant.getId());
+        return savedUser;
     }
 
     @Transactional
@@ -89,6 +97,7 @@ public class AuthenticationService {
         user.setTenant(record.getTenant());
 
         User savedUser = userRepository.save(user);
+        tenantEventService.markStatsChanged(record.getTenant().getId());
         record.setUser(savedUser);
         recordRepository.save(record);
         return savedUser;
@@ -116,6 +125,7 @@ public class AuthenticationService {
         user.setEnabled(false); // User is not enabled until they activate
 
         User savedUser = userRepository.save(user);
+        tenantEventService.markStatsChanged(record.getTenant().getId());
 
         // --- NEW ACTIVATION LOGIC ---
         // 1. Create and save the activation token
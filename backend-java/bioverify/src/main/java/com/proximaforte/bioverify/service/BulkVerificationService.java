@@ -1,10 +1,13 @@
 package com.proximaforte.bioverify.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proximaforte.bioverify.crypto.BlindIndex;
 import com.proximaforte.bioverify.domain.*;
 import com.proximaforte.bioverify.domain.enums.JobStatus;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.dto.BulkJobDto;
 import com.proximaforte.bioverify.dto.IdentitySourceConfigDto;
 import com.proximaforte.bioverify.dto.SotProfileDto;
 import com.proximaforte.bioverify.repository.*;
@@ -15,11 +18,13 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClientRequest;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
@@ -27,10 +32,7 @@ import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayInputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -51,10 +53,13 @@ public class BulkVerificationService {
     private static final Logger logger = LoggerFactory.getLogger(BulkVerificationService.class);
     private final MasterListRecordRepository recordRepository;
     private final BulkVerificationJobRepository jobRepository;
-    private final TenantRepository tenantRepository;
     private final DepartmentRepository departmentRepository;
     private final ObjectMapper objectMapper;
-    private final WebClient.Builder webClientBuilder;
+    private final SotClientRegistry sotClientRegistry;
+    private final SotResilience sotResilience;
+    private final ReviewerAssignmentIndexService reviewerAssignmentIndexService;
+    private final RecordStatusCounterService recordStatusCounterService;
+    private final TenantEventService tenantEventService;
 
     @SneakyThrows
     public void startBulkVerification(User currentUser) {
@@ -73,6 +78,7 @@ public class BulkVerificationService {
         job.setStatus(JobStatus.PENDING);
         job.setTotalRecords(recordsToVerify.size());
         job = jobRepository.save(job);
+        tenantEventService.publishAfterCommit(tenantId, TenantEventService.BULK_JOB, new BulkJobDto(job));
 
         runVerificationJob(job, tenantId, recordsToVerify);
     }
@@ -90,14 +96,13 @@ public class BulkVerificationService {
         try {
             job.setStatus(JobStatus.RUNNING);
             jobRepository.save(job);
+            tenantEventService.publish(tenantId, TenantEventService.BULK_JOB, new BulkJobDto(job));
 
-            Tenant tenant = tenantRepository.findById(tenantId)
-                    .orElseThrow(() -> new IllegalStateException("Tenant not found for ID: " + tenantId));
-
-            IdentitySourceConfigDto config = objectMapper.readValue(tenant.getIdentitySourceConfig(), IdentitySourceConfigDto.class);
+            SotClientRegistry.SotClient client = sotClientRegistry.getClient(tenantId);
+            IdentitySourceConfigDto config = client.getConfig();
 
             if ("OPTIMA".equalsIgnoreCase(config.getProviderName())) {
-                runOptimaBulkVerification(job, config, recordsToVerify);
+                runOptimaBulkVerification(job, tenantId, client, recordsToVerify);
             } else {
                 throw new UnsupportedOperationException("Bulk verification not supported for provider: " + config.getProviderName());
             }
@@ -105,6 +110,7 @@ public class BulkVerificationService {
             job.setStatus(JobStatus.COMPLETED);
             job.setStatusMessage("Bulk verification completed successfully.");
             jobRepository.save(job);
+            tenantEventService.publishAfterCommit(tenantId, TenantEventService.BULK_JOB, new BulkJobDto(job));
             logger.info("Background job {} completed successfully.", job.getId());
 
         } catch (Exception e) {
@@ -112,23 +118,27 @@ public class BulkVerificationService {
             job.setStatus(JobStatus.FAILED);
             job.setStatusMessage("Job failed: " + e.getMessage());
             jobRepository.save(job);
+            tenantEventService.publishAfterCommit(tenantId, TenantEventService.BULK_JOB, new BulkJobDto(job));
         }
     }
 
     @SneakyThrows
-    private void runOptimaBulkVerification(BulkVerificationJob job, IdentitySourceConfigDto config, List<MasterListRecord> recordsToVerify) {
+    private void runOptimaBulkVerification(BulkVerificationJob job, UUID tenantId, SotClientRegistry.SotClient client, List<MasterListRecord> recordsToVerify) {
         List<String> psnList = recordsToVerify.stream().map(MasterListRecord::getPsn).collect(Collectors.toList());
-        WebClient webClient = webClientBuilder.build();
+        IdentitySourceConfigDto config = client.getConfig();
+        WebClient webClient = client.getWebClient();
         String baseUrl = config.getApiBaseUrl();
 
         try {
-            JsonNode initialResponse = webClient.post()
+            // Provider calls go through the tenant's timeout, bulkhead and circuit breaker (not hedged: starting a job is not idempotent)
+            JsonNode initialResponse = sotResilience.executeBulk(tenantId, config.getProviderName(), () -> webClient.post()
                     .uri(baseUrl + "/bulk-inquiry")
+                    .httpRequest(this::applyBulkResponseTimeout)
                     .header("client-id", config.getClientId())
                     .header("Content-Type", "application/json")
                     .bodyValue(Map.of("psnList", psnList))
                     .retrieve()
-                    .bodyToMono(JsonNode.class)
+                    .bodyToMono(JsonNode.class))
                     .block();
 
             JsonNode dataNode = initialResponse.path("data");
@@ -146,11 +156,12 @@ public class BulkVerificationService {
             while (true) {
                 Thread.sleep(Duration.ofSeconds(30).toMillis());
 
-                JsonNode statusResponse = webClient.get()
+                JsonNode statusResponse = sotResilience.executeBulk(tenantId, config.getProviderName(), () -> webClient.get()
                         .uri(baseUrl + "/bulk-inquiry/{jobId}/status", jobId)
+                        .httpRequest(this::applyBulkResponseTimeout)
                         .header("client-id", config.getClientId())
                         .retrieve()
-                        .bodyToMono(JsonNode.class)
+                        .bodyToMono(JsonNode.class))
                         .block();
 
                 JsonNode finalStatusNode = statusResponse.path("data");
@@ -164,6 +175,7 @@ public class BulkVerificationService {
                         throw new RuntimeException("Optima job completed but did not provide a valid file URL.");
                     }
 
+                    // The result file can be large, so it is bounded by the client's connect/read timeouts only
                     byte[] zipBytes = webClient.get().uri(fileUrl).retrieve().bodyToMono(byte[].class).block();
 
                     byte[] encryptedCsvBytes = null;
@@ -214,12 +226,13 @@ public class BulkVerificationService {
                             .collect(Collectors.toMap(MasterListRecord::getPsn, Function.identity()));
 
                     List<MasterListRecord> successfullyVerifiedRecords = new ArrayList<>();
+                    StatusTransitions transitions = new StatusTransitions();
 
                     for (SotProfileDto profile : verifiedProfiles) {
                         MasterListRecord recordToUpdate = recordsByPsn.get(profile.getPsn());
 
                         if (recordToUpdate != null) {
-                            updateRecordWithSotData(recordToUpdate, profile);
+                            updateRecordWithSotData(recordToUpdate, profile, transitions);
                             successfullyVerifiedRecords.add(recordToUpdate);
                         }
                     }
@@ -233,10 +246,15 @@ public class BulkVerificationService {
                             .collect(Collectors.toList());
 
                     for (MasterListRecord notFoundRecord : notFoundRecords) {
-                        notFoundRecord.setStatus(RecordStatus.FLAGGED_NOT_IN_SOT);
+                        transitions.changeStatus(notFoundRecord, RecordStatus.FLAGGED_NOT_IN_SOT);
                     }
 
                     recordRepository.saveAll(recordsToVerify);
+                    recordStatusCounterService.apply(transitions);
+                    // Verified records may have moved to the department reported by the SoT
+                    reviewerAssignmentIndexService.refreshForRecords(successfullyVerifiedRecords.stream()
+                            .map(MasterListRecord::getId)
+                            .collect(Collectors.toList()));
 
                     int verifiedCount = successfullyVerifiedRecords.size();
                     int notFoundCount = notFoundRecords.size();
@@ -259,6 +277,15 @@ public class BulkVerificationService {
         }
     }
 
+    /**
+     * Bulk submissions and status polls can take longer than the shared client's response timeout, which is
+     * sized for single lookups, so they get the bulk call timeout instead.
+     */
+    private void applyBulkResponseTimeout(ClientHttpRequest request) {
+        HttpClientRequest nativeRequest = request.getNativeRequest();
+        nativeRequest.responseTimeout(sotResilience.getBulkCallTimeout());
+    }
+
     @SneakyThrows
     private String decrypt(byte[] cipherText, String key, String iv) {
         Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
@@ -269,12 +296,12 @@ public class BulkVerificationService {
         return new String(decryptedBytes, StandardCharsets.UTF_8);
     }
 
-    private void updateRecordWithSotData(MasterListRecord record, SotProfileDto profile) {
+    private void updateRecordWithSotData(MasterListRecord record, SotProfileDto profile, StatusTransitions transitions) {
         String fullName = (profile.getFirstName() + " " + profile.getMiddleName() + " " + profile.getSurname()).replace("  ", " ").trim();
         record.setSsid(profile.getSsid());
         record.setNin(profile.getNin());
-        record.setSsidHash(toSha256(profile.getSsid()));
-        record.setNinHash(toSha256(profile.getNin()));
+        record.setSsidHash(BlindIndex.sha256Hex(profile.getSsid()));
+        record.setNinHash(BlindIndex.sha256Hex(profile.getNin()));
         record.setFullName(fullName);
         record.setBvn(profile.getBvn());
         record.setGradeLevel(profile.getGradeLevel());
@@ -301,9 +328,17 @@ public class BulkVerificationService {
         } catch (NumberFormatException e) {
             logger.error("Could not parse date timestamp for PSN {}. Error: {}", profile.getPsn(), e.getMessage());
         }
+
+        // Keep the SoT snapshot so later lookups (and mismatch resolution) can use it without calling the provider
+        try {
+            record.setSotData(objectMapper.writeValueAsString(profile));
+            record.setVerifiedAt(Instant.now());
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize SoT data for PSN {}. Error: {}", profile.getPsn(), e.getMessage());
+        }
         
         // Set status to AWAITING_REVIEW
-        record.setStatus(RecordStatus.AWAITING_REVIEW);
+        transitions.changeStatus(record, RecordStatus.AWAITING_REVIEW);
     }
 
     private Department findOrCreateDepartment(String name, Tenant tenant) {
@@ -316,20 +351,4 @@ public class BulkVerificationService {
                     return departmentRepository.save(newDept);
                 });
     }
-
-    private String toSha256(String input) {
-        if (input == null) return null;
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            BigInteger number = new BigInteger(1, hash);
-            StringBuilder hexString = new StringBuilder(number.toString(16));
-            while (hexString.length() < 64) {
-                hexString.insert(0, '0');
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Could not find SHA-256 algorithm", e);
-        }
-    }
 }
\ No newline at end of file
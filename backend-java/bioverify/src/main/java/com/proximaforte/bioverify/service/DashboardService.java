@@ -7,67 +7,105 @@ import com.proximaforte.bioverify.dto.DashboardStatsDto;
 import com.proximaforte.bioverify.repository.MasterListRecordRepository;
 import com.proximaforte.bioverify.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
     private final MasterListRecordRepository recordRepository;
     private final UserRepository userRepository;
+    private final RecordStatusCounterService recordStatusCounterService;
+    private final TenantEventService tenantEventService;
+
+    // The stats last pushed to each tenant's subscribers, so unchanged stats are not pushed again
+    private final Map<UUID, DashboardStatsDto> lastPublishedStats = new ConcurrentHashMap<>();
+
+    // "Verified" means a record has passed the SoT check and is in some stage of review or is active.
+    private static final List<RecordStatus> VERIFIED_STATUSES = List.of(
+        RecordStatus.AWAITING_REVIEW,
+        RecordStatus.REVIEWED,
+        RecordStatus.ACTIVE,
+        RecordStatus.INACTIVE, // Still considered verified
+        RecordStatus.FLAGGED_INVALID_DOCUMENT // Still considered verified
+    );
 
     /**
      * Gathers all necessary statistics for the tenant performance dashboard.
+     * Record figures come from the tenant's maintained status counters and user figures from one grouped
+     * count over its users; every metric is derived from those in memory.
      * @param currentUser The user requesting the stats, used to identify the tenant.
      * @return A DTO containing all the calculated metrics.
      */
     @Transactional(readOnly = true)
     public DashboardStatsDto getDashboardStats(User currentUser) {
-        UUID tenantId = currentUser.getTenant().getId();
+        return getDashboardStats(currentUser.getTenant().getId());
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardStatsDto getDashboardStats(UUID tenantId) {
+        // Maintained counters: one row per status. Until the first reconciliation has built them, count directly.
+        Map<RecordStatus, Long> recordsByStatus = recordStatusCounterService.getCounts(tenantId);
+        if (recordsByStatus.isEmpty()) {
+            recordRepository.countByStatusForTenant(tenantId)
+                    .forEach(count -> recordsByStatus.put(count.getStatus(), count.getTotal()));
+        }
 
-        // --- UPDATED METRICS BASED ON NEW STATUSES ---
+        Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+        userRepository.countByRoleForTenant(tenantId)
+                .forEach(count -> usersByRole.put(count.getRole(), count.getTotal()));
+
+        return buildStats(recordsByStatus, usersByRole);
+    }
+
+    /**
+     * Pushes fresh stats to the live dashboards of every tenant whose records or users changed since the
+     * last run, computing them once per tenant however many dashboards are open.
+     */
+    @Scheduled(fixedDelayString = "${app.events.dashboard-stats-interval:PT2S}")
+    public void publishChangedStats() {
+        lastPublishedStats.keySet().removeIf(tenantId -> !tenantEventService.hasSubscribers(tenantId));
+        for (UUID tenantId : tenantEventService.drainStatsChanges()) {
+            try {
+                DashboardStatsDto stats = getDashboardStats(tenantId);
+                if (!stats.equals(lastPublishedStats.put(tenantId, stats))) {
+                    tenantEventService.publish(tenantId, TenantEventService.DASHBOARD_STATS, stats);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to publish dashboard stats for tenant {}", tenantId, e);
+            }
+        }
+    }
 
-        // "Verified" means a record has passed the SoT check and is in some stage of review or is active.
-        List<RecordStatus> verifiedStatuses = List.of(
-            RecordStatus.AWAITING_REVIEW, 
-            RecordStatus.REVIEWED, 
-            RecordStatus.ACTIVE,
-            RecordStatus.INACTIVE, // Still considered verified
-            RecordStatus.FLAGGED_INVALID_DOCUMENT // Still considered verified
-        );
-        long totalVerified = recordRepository.countByTenantIdAndStatusIn(tenantId, verifiedStatuses);
-        
-        // "Active" is the new "Validated", meaning ready for payroll.
-        long totalActive = recordRepository.countByTenantIdAndStatus(tenantId, RecordStatus.ACTIVE);
-        
-        // "Pending Review" is the new "Pending Approval".
-        long totalAwaitingReview = recordRepository.countByTenantIdAndStatus(tenantId, RecordStatus.AWAITING_REVIEW);
-        
-        long totalMismatched = recordRepository.countByTenantIdAndStatus(tenantId, RecordStatus.FLAGGED_DATA_MISMATCH);
-        long totalNotFound = recordRepository.countByTenantIdAndStatus(tenantId, RecordStatus.FLAGGED_NOT_IN_SOT);
-        
-        long totalReviewers = userRepository.countByTenantIdAndRole(tenantId, Role.REVIEWER);
-        long totalSelfServiceUsers = userRepository.countByTenantIdAndRole(tenantId, Role.SELF_SERVICE_USER);
-        long totalAgentAccounts = userRepository.countByTenantIdAndRole(tenantId, Role.AGENT);
+    private DashboardStatsDto buildStats(Map<RecordStatus, Long> recordsByStatus, Map<Role, Long> usersByRole) {
+        long totalRecords = recordsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long totalVerified = VERIFIED_STATUSES.stream().mapToLong(status -> recordsByStatus.getOrDefault(status, 0L)).sum();
 
-        // --- Build and return the DTO ---
         // 'totalValidated' is now 'totalActive', and 'totalPendingApproval' is 'totalAwaitingReview'.
         // 'totalAwaitingReVerification' is removed.
         return DashboardStatsDto.builder()
-                .totalUniqueRecords(recordRepository.countByTenantId(tenantId))
+                .totalUniqueRecords(totalRecords)
                 .totalVerified(totalVerified)
-                .totalValidated(totalActive)
-                .totalPendingApproval(totalAwaitingReview)
-                .totalMismatched(totalMismatched)
-                .totalNotFound(totalNotFound)
+                .totalValidated(recordsByStatus.getOrDefault(RecordStatus.ACTIVE, 0L))
+                .totalPendingApproval(recordsByStatus.getOrDefault(RecordStatus.AWAITING_REVIEW, 0L))
+                .totalMismatched(recordsByStatus.getOrDefault(RecordStatus.FLAGGED_DATA_MISMATCH, 0L))
+                .totalNotFound(recordsByStatus.getOrDefault(RecordStatus.FLAGGED_NOT_IN_SOT, 0L))
                 .totalAwaitingReVerification(0L) // This status is removed
-                .totalReviewers(totalReviewers)
-                .totalSelfServiceUsers(totalSelfServiceUsers)
-                .totalAgentAccounts(totalAgentAccounts)
+                .totalReviewers(usersByRole.getOrDefault(Role.REVIEWER, 0L))
+                .totalSelfServiceUsers(usersByRole.getOrDefault(Role.SELF_SERVICE_USER, 0L))
+                .totalAgentAccounts(usersByRole.getOrDefault(Role.AGENT, 0L))
                 .build();
     }
 }
\ No newline at end of file
@@ -1,25 +1,132 @@
 package com.proximaforte.bioverify.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jasypt.util.text.BasicTextEncryptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts and decrypts tenant secrets (e.g. SoT client secrets).
+ *
+ * New values are written with AES-256-GCM under a key that is derived once at startup, so
+ * there is no per-call key derivation. Values produced by the previous jasypt
+ * BasicTextEncryptor (PBEWithMD5AndDES) have no version prefix and are still decrypted.
+ */
 @Service
 public class EncryptionService {
 
-    private final BasicTextEncryptor textEncryptor;
+    private static final String CIPHER_PREFIX = "v2:";
+    private static final String CIPHER_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int KEY_DERIVATION_ITERATIONS = 210_000;
+    private static final byte[] KEY_DERIVATION_SALT = "bioverify.encryption-service.v2".getBytes(StandardCharsets.UTF_8);
+
+    private final BasicTextEncryptor legacyEncryptor;
+    private final SecretKey secretKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Cache<String, CachedSecret> credentialCache;
 
-    // This is the only line that changes.
-    public EncryptionService(@Value("${application.security.encryption.secret}") String encryptionPassword) {
-        this.textEncryptor = new BasicTextEncryptor();
-        this.textEncryptor.setPassword(encryptionPassword);
+    public EncryptionService(@Value("${application.security.encryption.secret}") String encryptionPassword,
+                             @Value("${application.security.encryption.credential-cache-ttl:PT5M}") Duration credentialCacheTtl) {
+        this.legacyEncryptor = new BasicTextEncryptor();
+        this.legacyEncryptor.setPassword(encryptionPassword);
+        this.secretKey = deriveKey(encryptionPassword);
+        this.credentialCache = Caffeine.newBuilder()
+                .expireAfterWrite(credentialCacheTtl)
+                .maximumSize(1_000)
+                .<String, CachedSecret>removalListener((encrypted, secret, cause) -> {
+                    if (secret != null) {
+                        secret.destroy();
+                    }
+                })
+                .build();
     }
 
     public String encrypt(String data) {
-        return textEncryptor.encrypt(data);
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] cipherText = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            byte[] payload = ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array();
+            return CIPHER_PREFIX + Base64.getEncoder().encodeToString(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt value", e);
+        }
     }
 
     public String decrypt(String encryptedData) {
-        return textEncryptor.decrypt(encryptedData);
+        if (!encryptedData.startsWith(CIPHER_PREFIX)) {
+            return legacyEncryptor.decrypt(encryptedData);
+        }
+        try {
+            byte[] payload = Base64.getDecoder().decode(encryptedData.substring(CIPHER_PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_BITS, payload, 0, GCM_IV_LENGTH));
+            byte[] plainText = cipher.doFinal(payload, GCM_IV_LENGTH, payload.length - GCM_IV_LENGTH);
+            return new String(plainText, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to decrypt value", e);
+        }
+    }
+
+    /**
+     * Decrypts a tenant credential, serving repeat requests from a short-lived in-memory cache.
+     * Cached plaintext is held as a char array and overwritten when the entry is evicted.
+     *
+     * @param encryptedData The encrypted credential as stored in the tenant configuration.
+     * @return The decrypted credential.
+     */
+    public String decryptCredential(String encryptedData) {
+        String secret = credentialCache.get(encryptedData, key -> new CachedSecret(decrypt(key).toCharArray())).reveal();
+        // The entry can be evicted and wiped between lookup and reveal; fall back to a direct decrypt.
+        return secret != null ? secret : decrypt(encryptedData);
+    }
+
+    private static SecretKey deriveKey(String password) {
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), KEY_DERIVATION_SALT, KEY_DERIVATION_ITERATIONS, 256);
+        try {
+            byte[] keyBytes = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec).getEncoded();
+            return new SecretKeySpec(keyBytes, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive encryption key", e);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+
+    private static final class CachedSecret {
+        private final char[] value;
+        private boolean destroyed;
+
+        private CachedSecret(char[] value) {
+            this.value = value;
+        }
+
+        synchronized String reveal() {
+            return destroyed ? null : new String(value);
+        }
+
+        synchronized void destroy() {
+            Arrays.fill(value, '\0');
+            destroyed = true;
+        }
     }
-}
\ No newline at end of file
+}
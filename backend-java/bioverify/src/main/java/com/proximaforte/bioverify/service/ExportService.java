@@ -5,92 +5,192 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.domain.PayrollExportLog;
 import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.domain.enums.ExportFormat;
+import com.proximaforte.bioverify.domain.enums.ExportType;
 import com.proximaforte.bioverify.domain.enums.JobStatus;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.dto.PayrollExportLogDto;
 import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import com.proximaforte.bioverify.repository.PayrollExportItemRepository;
 import com.proximaforte.bioverify.repository.PayrollExportLogRepository;
 import com.proximaforte.bioverify.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @Slf4j
-public class ExportService {
+public class ExportService implements DisposableBean {
+
+    // Records written between persistence context clears
+    private static final int DETACH_CHUNK_SIZE = 1000;
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final int PARTITION_BUFFER_SIZE = 64 * 1024;
+
+    // The format of snapshot IDs returned by pg_export_snapshot(), e.g. 00000003-0000001B-1
+    private static final Pattern SNAPSHOT_ID_PATTERN = Pattern.compile("[0-9A-Fa-f-]+");
 
     private final MasterListRecordRepository recordRepository;
     private final PayrollExportLogRepository logRepository;
+    private final PayrollExportItemRepository exportItemRepository;
     private final FileStorageService fileStorageService;
     private final ObjectMapper objectMapper;
     private final UserRepository userRepository;
+    private final TenantEventService tenantEventService;
     private final ExportService self;
+    private final ExecutorService partitionExecutor;
+    private final int partitionCount;
+    private final long partitionThreshold;
+    private final Path partitionWorkDir;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * How a record in a delta export differs from the base export.
+     */
+    public enum ChangeType {
+        ADDED,
+        CHANGED,
+        REMOVED
+    }
 
     public ExportService(MasterListRecordRepository recordRepository,
                          PayrollExportLogRepository logRepository,
+                         PayrollExportItemRepository exportItemRepository,
                          FileStorageService fileStorageService,
                          ObjectMapper objectMapper,
                          UserRepository userRepository,
-                         @Lazy ExportService self) {
+                         TenantEventService tenantEventService,
+                         @Lazy ExportService self,
+                         @Value("${app.export.partitioned.threads:4}") int partitionThreads,
+                         @Value("${app.export.partitioned.partitions:8}") int partitionCount,
+                         @Value("${app.export.partitioned.min-records:100000}") long partitionThreshold,
+                         @Value("${app.export.partitioned.work-dir:${app.storage.upload-dir:./storage/uploads}/export-work}") String partitionWorkDir) {
         this.recordRepository = recordRepository;
         this.logRepository = logRepository;
+        this.exportItemRepository = exportItemRepository;
         this.fileStorageService = fileStorageService;
         this.objectMapper = objectMapper;
         this.userRepository = userRepository;
+        this.tenantEventService = tenantEventService;
         this.self = self;
+        this.partitionExecutor = Executors.newFixedThreadPool(partitionThreads, new CustomizableThreadFactory("export-partition-"));
+        this.partitionCount = partitionCount;
+        this.partitionThreshold = partitionThreshold;
+        this.partitionWorkDir = Paths.get(partitionWorkDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void destroy() {
+        partitionExecutor.shutdownNow();
     }
 
     @Async
-    public void generateExport(User initiator) {
+    public void generateExport(User initiator, ExportType requestedType, ExportFormat format) {
         User fullInitiator = userRepository.findByIdWithTenant(initiator.getId())
             .orElseThrow(() -> new EntityNotFoundException("Initiator user not found with ID: " + initiator.getId()));
 
-        PayrollExportLog exportLog = self.createInitialLogEntry(fullInitiator);
+        PayrollExportLog exportLog = self.createInitialLogEntry(fullInitiator, requestedType, format);
         UUID logId = exportLog.getId();
-        log.info("Starting new payroll export process with log ID: {}", logId);
+        PayrollExportLog baseExport = exportLog.getBaseExport();
+        log.info("Starting new {} payroll export process with log ID: {}", exportLog.getExportType(), logId);
 
         try {
-            List<MasterListRecord> recordsToExport = self.getRecordsToExport(fullInitiator.getTenant().getId());
-
-            if (recordsToExport.isEmpty()) {
-                self.updateLogStatus(logId, JobStatus.COMPLETED, "No active records to export.", null);
-                log.info("No active records to export for tenant: {}", fullInitiator.getTenant().getId());
-                return;
-            }
+            UUID tenantId = fullInitiator.getTenant().getId();
+            boolean partitioned = false;
+            if (baseExport == null) {
+                long recordCount = recordRepository.countByTenantIdAndStatus(tenantId, RecordStatus.ACTIVE);
 
-            log.info("Found {} records to export for tenant: {}", recordsToExport.size(), fullInitiator.getTenant().getId());
+                if (recordCount == 0) {
+                    self.updateLogStatus(logId, JobStatus.COMPLETED, "No active records to export.", null);
+                    log.info("No active records to export for tenant: {}", tenantId);
+                    return;
+                }
 
-            byte[] csvData = createCsvData(recordsToExport);
+                log.info("Found {} records to export for tenant: {}", recordCount, tenantId);
+                // Large full exports are generated in parallel ID ranges; deltas are small enough to write directly
+                partitioned = partitionCount > 1 && recordCount >= partitionThreshold;
+            }
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss").withZone(ZoneId.systemDefault());
             String timestamp = formatter.format(exportLog.getExportTimestamp());
-            String fileName = String.format("payroll-export-%s-%s.csv", fullInitiator.getTenant().getStateCode(), timestamp);
+            String prefix = baseExport == null ? "payroll-export" : "payroll-delta";
+            String baseName = String.format("%s-%s-%s", prefix, fullInitiator.getTenant().getStateCode(), timestamp);
+
+            // The CSV is written straight from the database cursor into the file, compressed on the fly if requested
+            Instant changedSince = baseExport != null ? baseExport.getExportTimestamp() : null;
+            Map<ChangeType, Long> changeCounts = new EnumMap<>(ChangeType.class);
+            boolean writePartitioned = partitioned;
+            // The stored bytes are counted and hashed as they are written, so the file never has to be re-read
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long[] writtenCount = {0};
+            long[] fileSize = {0};
+            String fileUrl = fileStorageService.save(baseName + format.getFileExtension(), out -> {
+                CountingOutputStream stored = new CountingOutputStream(new DigestOutputStream(out, sha256));
+                OutputStream target = format == ExportFormat.CSV_GZIP ? new GZIPOutputStream(stored, GZIP_BUFFER_SIZE) : stored;
+                writtenCount[0] = writePartitioned
+                        ? self.writePartitionedCsv(logId, tenantId, target)
+                        : self.writeExportCsv(logId, tenantId, changedSince, target, changeCounts);
+                if (target instanceof GZIPOutputStream gzip) {
+                    gzip.finish();
+                }
+                fileSize[0] = stored.getCount();
+            });
+            String checksum = HexFormat.of().formatHex(sha256.digest());
 
-            String fileUrl = fileStorageService.save(csvData, fileName);
+            String manifestUrl = saveManifest(exportLog, baseName, fileUrl, writtenCount[0], fileSize[0], checksum, changeCounts);
 
-            self.finalizeExport(logId, (long) recordsToExport.size(), fileUrl, recordsToExport);
-            log.info("Successfully completed payroll export {} for tenant {}", logId, fullInitiator.getTenant().getId());
+            self.finalizeExport(logId, writtenCount[0], fileUrl, fileSize[0], checksum, manifestUrl);
+            log.info("Successfully completed payroll export {} for tenant {}", logId, tenantId);
 
         } catch (Exception e) {
             log.error("Payroll export process for log ID {} failed for tenant: {}", logId, fullInitiator.getTenant().getId(), e);
@@ -98,34 +198,108 @@ public class ExportService {
         }
     }
 
+    /**
+     * Creates the RUNNING log entry for a new export. A delta export is based on the tenant's most recent
+     * completed export; without one there is nothing to compare against, so a full export is made instead.
+     */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public PayrollExportLog createInitialLogEntry(User initiator) {
+    public PayrollExportLog createInitialLogEntry(User initiator, ExportType requestedType, ExportFormat format) {
+        PayrollExportLog baseExport = null;
+        if (requestedType == ExportType.DELTA) {
+            baseExport = logRepository.findFirstByTenantIdAndStatusOrderByExportTimestampDesc(initiator.getTenant().getId(), JobStatus.COMPLETED)
+                .orElse(null);
+            if (baseExport == null) {
+                log.info("No completed export to base a delta on for tenant {}; making a full export", initiator.getTenant().getId());
+            }
+        }
+
         PayrollExportLog exportLog = new PayrollExportLog();
         exportLog.setTenant(initiator.getTenant());
         exportLog.setExportedBy(initiator);
+        exportLog.setExportType(baseExport != null ? ExportType.DELTA : ExportType.FULL);
+        exportLog.setBaseExport(baseExport);
+        exportLog.setFormat(format);
         exportLog.setExportTimestamp(Instant.now());
         exportLog.setRecordCount(0L);
         exportLog.setStatus(JobStatus.RUNNING);
-        return logRepository.save(exportLog);
+        PayrollExportLog savedLog = logRepository.save(exportLog);
+        publishProgress(savedLog);
+        return savedLog;
     }
     
-    @Transactional(readOnly = true)
-    public List<MasterListRecord> getRecordsToExport(UUID tenantId) {
-        return recordRepository.findAllToExport(tenantId, RecordStatus.ACTIVE);
+    /**
+     * Writes the tenant's ACTIVE records as CSV, reading them from a database cursor in ID order.
+     * With changedSince set, writes a delta instead: only the records added, changed or removed since
+     * then, with an extra changeType column.
+     * Runs in a REPEATABLE READ transaction, so the whole file reflects a single database snapshot
+     * even though changes keep committing while it is written.
+     * The persistence context is cleared every DETACH_CHUNK_SIZE records, so memory use stays bounded
+     * however many records the tenant has. The written records are staged for linking to the export log
+     * in the same transaction, so exactly the rows in the file are linked when the export is finalized.
+     *
+     * @param logId        The export log the written records are staged for.
+     * @param changedSince The base export's timestamp for a delta export, or null for a full export.
+     * @param changeCounts Receives the number of records written per change type (delta exports only).
+     * @return The number of records written.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public long writeExportCsv(UUID logId, UUID tenantId, Instant changedSince, OutputStream out, Map<ChangeType, Long> changeCounts) throws IOException {
+        boolean delta = changedSince != null;
+        List<String> headers = delta ? PayrollRowWriter.DELTA_HEADERS : PayrollRowWriter.HEADERS;
+        // Not closed: the stream belongs to the storage service, so the printer is only flushed
+        CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.withHeader(headers.toArray(new String[0])));
+
+        try (Stream<MasterListRecord> records = delta
+                ? recordRepository.streamChangesToExport(tenantId, RecordStatus.ACTIVE, changedSince)
+                : recordRepository.streamAllToExport(tenantId, RecordStatus.ACTIVE)) {
+            return printRecords(logId, csvPrinter, records, delta ? changeCounts : null);
+        }
+    }
+
+    /**
+     * Writes one ID range of a partitioned full export as CSV rows without a header.
+     * Runs in its own transaction, so partitions can be written concurrently, reading from the snapshot
+     * exported by the coordinating transaction so that all partitions see the same data. The partition's
+     * records are staged for linking when that transaction commits.
+     *
+     * @param snapshotId The snapshot returned by pg_export_snapshot() in the coordinating transaction.
+     * @return The number of records written.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public long writeExportPartition(UUID logId, String snapshotId, UUID tenantId, UUID fromId, UUID toId, OutputStream out) throws IOException {
+        if (!SNAPSHOT_ID_PATTERN.matcher(snapshotId).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot ID: " + snapshotId);
+        }
+        // Must be the first statement of the transaction; SET does not accept bind parameters
+        entityManager.createNativeQuery("SET TRANSACTION SNAPSHOT '" + snapshotId + "'").executeUpdate();
+
+        // Not closed: the stream belongs to the caller, so the printer is only flushed
+        CSVPrinter csvPrinter = new CSVPrinter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSVFormat.DEFAULT);
+        try (Stream<MasterListRecord> records = recordRepository.streamExportPartition(tenantId, RecordStatus.ACTIVE, fromId, toId)) {
+            return printRecords(logId, csvPrinter, records, null);
+        }
     }
     
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void finalizeExport(UUID logId, Long recordCount, String fileUrl, List<MasterListRecord> recordsToExport) {
+    public void finalizeExport(UUID logId, Long recordCount, String fileUrl, Long fileSize, String checksum, String manifestUrl) {
         PayrollExportLog finalLog = logRepository.findById(logId)
             .orElseThrow(() -> new EntityNotFoundException("PayrollExportLog not found with ID: " + logId));
         finalLog.setRecordCount(recordCount);
         finalLog.setFileUrl(fileUrl);
+        finalLog.setFileSize(fileSize);
+        finalLog.setChecksum(checksum);
+        finalLog.setManifestUrl(manifestUrl);
         finalLog.setStatus(JobStatus.COMPLETED);
         finalLog.setStatusMessage("Export completed successfully.");
-        for (MasterListRecord record : recordsToExport) {
-            record.setPayrollExportLog(finalLog);
+        // One set-based UPDATE links exactly the records staged by the writers to the export that now
+        // reflects them; the link marks the record as already exported
+        int linked = exportItemRepository.linkRecordsToExportLog(logId);
+        exportItemRepository.deleteByExportLogId(logId);
+        if (linked != recordCount) {
+            log.warn("Payroll export {} wrote {} records but linked {}; records were deleted while it ran", logId, recordCount, linked);
         }
-        recordRepository.saveAll(recordsToExport);
+        publishProgress(finalLog);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -136,68 +310,192 @@ public class ExportService {
         failedLog.setStatusMessage(message);
         failedLog.setFileUrl(fileUrl);
         logRepository.save(failedLog);
+        // A failed export links nothing; drop whatever its writers staged
+        exportItemRepository.deleteByExportLogId(logId);
+        publishProgress(failedLog);
     }
 
-    private byte[] createCsvData(List<MasterListRecord> records) throws IOException {
-        // --- SIMPLIFIED LOGIC: This list is now the single source of truth for headers and their order. ---
-        List<String> finalHeaders = Arrays.asList(
-            "workId", "firstName", "middleName", "surname", "gradeLevel", "salaryStructure",
-            "ministry", "department", "email", "phoneNumber", "status", "bvn", "nin", "ssid",
-            "psn", "dateOfBirth", "gender", "cadre", "dateOfFirstAppointment",
-            "validatedByEmail", "validatedAt"
-        );
-
-        List<Map<String, String>> processedRecords = new ArrayList<>();
-        
-        for (MasterListRecord record : records) {
-            Map<String, String> recordMap = new LinkedHashMap<>();
-
-            // Populate the map directly from the verified entity data
-            recordMap.put("workId", record.getWid() != null ? record.getWid() : "");
-            recordMap.put("gradeLevel", record.getGradeLevel() != null ? record.getGradeLevel() : "");
-            recordMap.put("salaryStructure", record.getSalaryStructure() != null ? record.getSalaryStructure() : "");
-            recordMap.put("ministry", record.getMinistry() != null ? record.getMinistry().getName() : "");
-            recordMap.put("department", record.getDepartment() != null ? record.getDepartment().getName() : "");
-            recordMap.put("email", record.getEmail() != null ? record.getEmail() : "");
-            recordMap.put("phoneNumber", record.getPhoneNumber() != null ? record.getPhoneNumber() : "");
-            recordMap.put("status", record.getStatus() != null ? record.getStatus().toString() : "");
-            recordMap.put("bvn", record.getBvn() != null ? record.getBvn() : "");
-            recordMap.put("nin", record.getNin() != null ? record.getNin() : "");
-            recordMap.put("ssid", record.getSsid() != null ? record.getSsid() : "");
-            recordMap.put("psn", record.getPsn() != null ? record.getPsn() : "");
-            recordMap.put("dateOfBirth", record.getDateOfBirth() != null ? record.getDateOfBirth().toString() : "");
-            recordMap.put("gender", record.getGender() != null ? record.getGender() : "");
-            recordMap.put("cadre", record.getCadre() != null ? record.getCadre() : "");
-            recordMap.put("dateOfFirstAppointment", record.getDateOfFirstAppointment() != null ? record.getDateOfFirstAppointment().toString() : "");
-            recordMap.put("validatedByEmail", record.getValidatedBy() != null ? record.getValidatedBy().getEmail() : "");
-            recordMap.put("validatedAt", record.getValidatedAt() != null ? record.getValidatedAt().toString() : "");
-
-            // Split the definitive full name from the entity into parts for the export
-            String fullName = record.getFullName();
-            if (fullName != null && !fullName.isBlank()) {
-                String[] names = fullName.split("\\s+");
-                recordMap.put("firstName", names.length > 0 ? names[0] : "");
-                if (names.length > 2) {
-                    String middleName = String.join(" ", Arrays.copyOfRange(names, 1, names.length - 1));
-                    recordMap.put("middleName", middleName);
-                } else {
-                    recordMap.put("middleName", "");
-                }
-                recordMap.put("surname", names.length > 1 ? names[names.length - 1] : "");
+    /**
+     * Pushes the export's new state to the tenant's open admin pages once the surrounding transaction commits.
+     */
+    private void publishProgress(PayrollExportLog exportLog) {
+        UUID tenantId = exportLog.getTenant().getId();
+        if (tenantEventService.hasSubscribers(tenantId)) {
+            tenantEventService.publishAfterCommit(tenantId, TenantEventService.PAYROLL_EXPORT, new PayrollExportLogDto(exportLog));
+        }
+    }
+
+    /**
+     * Writes a full export by splitting the tenant's ACTIVE records into ID ranges, writing the ranges
+     * concurrently on the partition pool into temporary files, and then appending the files in ID order
+     * after the header. The result is identical to writing the records sequentially in ID order.
+     * The part files hold decrypted identifiers, so they are written under the storage root
+     * (app.export.partitioned.work-dir) rather than the system temp directory, and deleted afterwards.
+     * This transaction exports its snapshot and stays open until every partition has been written, so the
+     * ranges and all partitions are read from the same consistent snapshot.
+     *
+     * @return The number of records written.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public long writePartitionedCsv(UUID logId, UUID tenantId, OutputStream out) throws IOException {
+        String snapshotId = recordRepository.exportSnapshot();
+        List<UUID> partitionStarts = recordRepository.findExportPartitionStarts(tenantId, RecordStatus.ACTIVE.name(), partitionCount);
+        List<Path> partFiles = new ArrayList<>();
+        List<Future<Long>> partCounts = new ArrayList<>();
+        Files.createDirectories(partitionWorkDir);
+        Path exportWorkDir = Files.createTempDirectory(partitionWorkDir, "payroll-export-");
+        try {
+            for (int i = 0; i < partitionStarts.size(); i++) {
+                UUID fromId = partitionStarts.get(i);
+                UUID toId = i + 1 < partitionStarts.size() ? partitionStarts.get(i + 1) : null;
+                Path partFile = exportWorkDir.resolve("part-" + i + ".csv");
+                partFiles.add(partFile);
+                partCounts.add(partitionExecutor.submit(() -> {
+                    try (OutputStream partOut = new BufferedOutputStream(Files.newOutputStream(partFile), PARTITION_BUFFER_SIZE)) {
+                        return self.writeExportPartition(logId, snapshotId, tenantId, fromId, toId, partOut);
+                    }
+                }));
+            }
+
+            long count = 0;
+            for (Future<Long> partCount : partCounts) {
+                count += partCount.get();
+            }
+            log.info("Wrote {} export partitions for tenant {}", partFiles.size(), tenantId);
+
+            CSVPrinter headerPrinter = new CSVPrinter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSVFormat.DEFAULT);
+            headerPrinter.printRecord(PayrollRowWriter.HEADERS);
+            headerPrinter.flush();
+            for (Path partFile : partFiles) {
+                Files.copy(partFile, out);
+            }
+            return count;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing export partitions", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to write export partition: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            partCounts.forEach(partCount -> partCount.cancel(true));
+            for (Path partFile : partFiles) {
+                Files.deleteIfExists(partFile);
+            }
+            try {
+                Files.deleteIfExists(exportWorkDir);
+            } catch (DirectoryNotEmptyException e) {
+                // A cancelled partition was still creating its file; don't mask the original outcome
+                log.warn("Could not remove export work directory {}", exportWorkDir);
             }
-            
-            processedRecords.add(recordMap);
         }
+    }
+
+    /**
+     * Prints each record as a CSV row, staging the written record IDs for the export log and clearing
+     * the persistence context every DETACH_CHUNK_SIZE records.
+     *
+     * @param changeCounts Receives the number of records per change type for a delta export, in which
+     *                     case the changeType column is written too; otherwise null.
+     * @return The number of records printed.
+     */
+    private long printRecords(UUID logId, CSVPrinter csvPrinter, Stream<MasterListRecord> records,
+                              Map<ChangeType, Long> changeCounts) throws IOException {
+        PayrollRowWriter rowWriter = new PayrollRowWriter(csvPrinter);
+        List<UUID> writtenIds = new ArrayList<>(DETACH_CHUNK_SIZE);
+        long count = 0;
+        Iterator<MasterListRecord> iterator = records.iterator();
+        while (iterator.hasNext()) {
+            MasterListRecord record = iterator.next();
+            if (changeCounts != null) {
+                ChangeType changeType = changeTypeOf(record);
+                rowWriter.write(record, changeType);
+                changeCounts.merge(changeType, 1L, Long::sum);
+            } else {
+                rowWriter.write(record);
+            }
+            writtenIds.add(record.getId());
+
+            if (++count % DETACH_CHUNK_SIZE == 0) {
+                exportItemRepository.insertForRecords(logId, writtenIds);
+                writtenIds.clear();
+                entityManager.clear();
+            }
+        }
+        if (!writtenIds.isEmpty()) {
+            exportItemRepository.insertForRecords(logId, writtenIds);
+        }
+        csvPrinter.flush();
+        return count;
+    }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (PrintWriter writer = new PrintWriter(out);
-             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(finalHeaders.toArray(new String[0])))) {
+    /**
+     * Writes the JSON manifest next to the export file, describing what it contains and, for a delta,
+     * which export it must be applied on top of.
+     */
+    private String saveManifest(PayrollExportLog exportLog, String baseName, String fileUrl,
+                                long recordCount, long fileSize, String checksum,
+                                Map<ChangeType, Long> changeCounts) throws IOException {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("exportId", exportLog.getId());
+        manifest.put("exportType", exportLog.getExportType());
+        manifest.put("exportTimestamp", exportLog.getExportTimestamp().toString());
+        manifest.put("dataFile", fileUrl);
+        manifest.put("format", exportLog.getFormat());
+        manifest.put("fileSize", fileSize);
+        manifest.put("sha256", checksum);
+        manifest.put("recordCount", recordCount);
 
-            for (Map<String, String> recordMap : processedRecords) {
-                // Print values in the order defined by finalHeaders
-                csvPrinter.printRecord(finalHeaders.stream().map(h -> recordMap.getOrDefault(h, "")));
+        PayrollExportLog baseExport = exportLog.getBaseExport();
+        if (baseExport != null) {
+            Map<String, Long> changes = new LinkedHashMap<>();
+            for (ChangeType changeType : ChangeType.values()) {
+                changes.put(changeType.name(), changeCounts.getOrDefault(changeType, 0L));
             }
+            manifest.put("changes", changes);
+
+            Map<String, Object> base = new LinkedHashMap<>();
+            base.put("exportId", baseExport.getId());
+            base.put("exportType", baseExport.getExportType() != null ? baseExport.getExportType() : ExportType.FULL);
+            base.put("exportTimestamp", baseExport.getExportTimestamp().toString());
+            base.put("dataFile", baseExport.getFileUrl());
+            base.put("manifest", baseExport.getManifestUrl());
+            manifest.put("baseExport", base);
+        }
+
+        return fileStorageService.save(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest), baseName + ".manifest.json");
+    }
+
+    private ChangeType changeTypeOf(MasterListRecord record) {
+        if (record.getStatus() != RecordStatus.ACTIVE) {
+            return ChangeType.REMOVED;
+        }
+        return record.getPayrollExportLog() == null ? ChangeType.ADDED : ChangeType.CHANGED;
+    }
+
+    /**
+     * Counts the bytes written through it, i.e. the size of the stored file.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
         }
-        return out.toByteArray();
     }
 }
\ No newline at end of file
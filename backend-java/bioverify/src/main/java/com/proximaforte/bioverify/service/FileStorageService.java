@@ -2,6 +2,7 @@ package com.proximaforte.bioverify.service;
 
 import org.springframework.core.io.Resource;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * An interface for abstracting file storage operations.
@@ -18,6 +19,16 @@ public interface FileStorageService {
      */
     String save(byte[] content, String fileName) throws IOException;
 
+    /**
+     * Saves file content produced by a writer, streaming it to the storage system without holding
+     * the whole file in memory. The file only becomes visible once the writer has finished successfully.
+     *
+     * @param fileName The desired name for the file.
+     * @param writer Writes the file content to the given stream; must not close it.
+     * @return A unique identifier or path for the saved file.
+     */
+    String save(String fileName, ContentWriter writer) throws IOException;
+
     /**
      * Loads a file's content from the storage system.
      *
@@ -33,4 +44,12 @@ public interface FileStorageService {
      * @return A Resource object for the file.
      */
     Resource loadAsResource(String fileIdentifier);
+
+    /**
+     * Produces file content for {@link #save(String, ContentWriter)}.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
 }
\ No newline at end of file
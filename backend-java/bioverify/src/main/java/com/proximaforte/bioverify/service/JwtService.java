@@ -1,7 +1,9 @@
 package com.proximaforte.bioverify.service;
 
 import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.Tenant;
 import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.domain.enums.Role;
 import com.proximaforte.bioverify.repository.MasterListRecordRepository;
 import com.proximaforte.bioverify.repository.UserRepository;
 import io.jsonwebtoken.Claims;
@@ -20,12 +22,17 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TENANT_ID_CLAIM = "tenantId";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
     @Value("${application.security.jwt.expiration}")
@@ -51,9 +58,10 @@ public class JwtService {
         var user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found during token generation."));
 
-        extraClaims.put("role", user.getRole());
+        extraClaims.put(USER_ID_CLAIM, user.getId());
+        extraClaims.put(ROLE_CLAIM, user.getRole());
         if (user.getTenant() != null) {
-            extraClaims.put("tenantId", user.getTenant().getId());
+            extraClaims.put(TENANT_ID_CLAIM, user.getTenant().getId());
         }
 
         // Find the master record to add the verification status to the token
@@ -75,18 +83,50 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Checks already parsed claims against the user, so a request only verifies its token once.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
+    /**
+     * Verifies the token's signature and expiry and returns its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
 
+    /**
+     * Rebuilds the authenticated user from the signed claims, without loading it from the database.
+     * The result is a detached stub carrying only the ID, email, role and (as an ID-only stub) tenant;
+     * it can be used as a foreign key reference, but not to navigate other associations.
+     *
+     * @return The principal, or null for tokens issued without the ID and role claims.
+     */
+    public User principalFromClaims(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        User user = new User();
+        user.setId(UUID.fromString(userId));
+        user.setEmail(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        String tenantId = claims.get(TENANT_ID_CLAIM, String.class);
+        if (tenantId != null) {
+            Tenant tenant = new Tenant();
+            tenant.setId(UUID.fromString(tenantId));
+            user.setTenant(tenant);
+        }
+        return user;
     }
 
     private Claims extractAllClaims(String token) {
@@ -17,10 +17,13 @@ public class LivenessCheckScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(LivenessCheckScheduler.class);
     private final MasterListRecordRepository recordRepository;
+    private final RecordStatusCounterService recordStatusCounterService;
     // In a real application, you would also inject a NotificationService here.
 
-    public LivenessCheckScheduler(MasterListRecordRepository recordRepository) {
+    public LivenessCheckScheduler(MasterListRecordRepository recordRepository,
+                                  RecordStatusCounterService recordStatusCounterService) {
         this.recordRepository = recordRepository;
+        this.recordStatusCounterService = recordStatusCounterService;
     }
 
     /**
@@ -73,11 +76,13 @@ public class LivenessCheckScheduler {
         }
 
         logger.warn("Found {} users to suspend for overdue liveness checks.", recordsToSuspend.size());
+        StatusTransitions transitions = new StatusTransitions();
         for (MasterListRecord record : recordsToSuspend) {
             logger.warn("Setting account to INACTIVE for user {} (Record ID: {})", record.getUser().getEmail(), record.getId());
-            record.setStatus(RecordStatus.INACTIVE);
+            transitions.changeStatus(record, RecordStatus.INACTIVE);
         }
 
         recordRepository.saveAll(recordsToSuspend);
+        recordStatusCounterService.apply(transitions);
     }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.proximaforte.bioverify.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.proximaforte.bioverify.crypto.BlindIndex;
 import com.proximaforte.bioverify.domain.Department;
 import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.domain.Ministry;
@@ -9,30 +13,38 @@ import com.proximaforte.bioverify.domain.User;
 import com.proximaforte.bioverify.domain.enums.RecordStatus;
 import com.proximaforte.bioverify.domain.enums.Role;
 import com.proximaforte.bioverify.dto.FindRecordRequestDto;
+import com.proximaforte.bioverify.dto.KeysetPage;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+import com.proximaforte.bioverify.dto.QueuePageRequestDto;
 import com.proximaforte.bioverify.dto.SotProfileDto;
 import com.proximaforte.bioverify.dto.UpdateRecordRequestDto;
 import com.proximaforte.bioverify.dto.ValidateRecordRequestDto;
 import com.proximaforte.bioverify.exception.RecordNotFoundException;
 import com.proximaforte.bioverify.repository.DepartmentRepository;
 import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import com.proximaforte.bioverify.repository.MasterListRecordRepository.RecordDocumentUrl;
 import com.proximaforte.bioverify.repository.MinistryRepository;
-import com.proximaforte.bioverify.repository.UserRepository;
+import com.proximaforte.bioverify.repository.RecordCursor;
+import com.proximaforte.bioverify.repository.RecordQueueFilter;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -42,9 +54,16 @@ public class MasterListRecordService {
     private final DepartmentRepository departmentRepository;
     private final MinistryRepository ministryRepository;
     private final ObjectMapper objectMapper;
-    private final UserRepository userRepository;
     private final EmployeeIdService employeeIdService; // NEW DEPENDENCY
     private final AuthenticationService authenticationService; // NEW DEPENDENCY
+    private final ReviewerAssignmentIndexService reviewerAssignmentIndexService;
+    private final RecordStatusCounterService recordStatusCounterService;
+
+    @Value("${app.records.queue.default-page-size:50}")
+    private int defaultQueuePageSize;
+
+    @Value("${app.records.queue.max-page-size:200}")
+    private int maxQueuePageSize;
 
     @Transactional(readOnly = true)
     public MasterListRecord findRecordForPol(FindRecordRequestDto request, User agent) {
@@ -56,8 +75,8 @@ public class MasterListRecordService {
         String normalizedSsid = request.getSsid().trim();
         String normalizedNin = request.getNin().trim();
 
-        String ssidHash = toSha256(normalizedSsid);
-        String ninHash = toSha256(normalizedNin);
+        String ssidHash = BlindIndex.sha256Hex(normalizedSsid);
+        String ninHash = BlindIndex.sha256Hex(normalizedNin);
 
         MasterListRecord record = recordRepository
                 .findByTenantIdAndSsidHashAndNinHash(agent.getTenant().getId(), ssidHash, ninHash)
@@ -70,79 +89,117 @@ public class MasterListRecordService {
         return record;
     }
 
-    public List<MasterListRecord> getAwaitingReviewQueue(User currentUser) {
-        UUID tenantId = currentUser.getTenant().getId();
-        List<RecordStatus> statuses = List.of(RecordStatus.AWAITING_REVIEW);
+    @Transactional(readOnly = true)
+    public KeysetPage<MasterListRecordDto> getAwaitingReviewQueue(User currentUser, QueuePageRequestDto pageRequest) {
+        return getAssignedQueuePage(currentUser, List.of(RecordStatus.AWAITING_REVIEW), pageRequest);
+    }
 
-        if (currentUser.getRole() == Role.TENANT_ADMIN) {
-            return recordRepository.findByTenantIdAndStatusIn(tenantId, statuses);
-        }
+    @Transactional(readOnly = true)
+    public KeysetPage<MasterListRecordDto> getMismatchedQueue(User currentUser, QueuePageRequestDto pageRequest) {
+        return getAssignedQueuePage(currentUser, List.of(RecordStatus.FLAGGED_DATA_MISMATCH), pageRequest);
+    }
 
-        if (currentUser.getRole() == Role.REVIEWER) {
-            User reviewer = userRepository.findUserWithAssignments(currentUser.getId()).orElse(currentUser);
-            
-            Set<Department> depts = reviewer.getAssignedDepartments();
-            Set<Ministry> mins = reviewer.getAssignedMinistries();
-            if ((depts == null || depts.isEmpty()) && (mins == null || mins.isEmpty())) {
-                return Collections.emptyList();
-            }
-            return recordRepository.findRecordsByReviewerAssignments(tenantId, statuses, depts, mins);
-        }
-        return Collections.emptyList();
+    @Transactional(readOnly = true)
+    public KeysetPage<MasterListRecordDto> getInvalidDocumentQueue(User currentUser, QueuePageRequestDto pageRequest) {
+        KeysetPage<MasterListRecordDto> page = getAssignedQueuePage(currentUser, List.of(RecordStatus.FLAGGED_INVALID_DOCUMENT), pageRequest);
+        // Admins review the flagged documents from this queue, so it carries their URLs
+        attachDocumentUrls(page.getItems());
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<MasterListRecordDto> getFlaggedNotInSotQueue(User currentUser, QueuePageRequestDto pageRequest) {
+        RecordQueueFilter filter = new RecordQueueFilter(currentUser.getTenant().getId(), List.of(RecordStatus.FLAGGED_NOT_IN_SOT),
+                pageRequest.getDepartmentId(), pageRequest.getMinistryId(), null);
+        return getQueuePage(filter, pageRequest);
     }
 
-    public List<MasterListRecord> getMismatchedQueue(User currentUser) {
+    /**
+     * Tenant admins see the whole queue; reviewers only see records in their assigned departments or ministries,
+     * read from the precomputed reviewer queue index.
+     */
+    private KeysetPage<MasterListRecordDto> getAssignedQueuePage(User currentUser, List<RecordStatus> statuses, QueuePageRequestDto pageRequest) {
         UUID tenantId = currentUser.getTenant().getId();
-        List<RecordStatus> statuses = List.of(RecordStatus.FLAGGED_DATA_MISMATCH);
 
         if (currentUser.getRole() == Role.TENANT_ADMIN) {
-            return recordRepository.findByTenantIdAndStatusIn(tenantId, statuses);
+            return getQueuePage(new RecordQueueFilter(tenantId, statuses,
+                    pageRequest.getDepartmentId(), pageRequest.getMinistryId(), null), pageRequest);
         }
 
         if (currentUser.getRole() == Role.REVIEWER) {
-            User reviewer = userRepository.findUserWithAssignments(currentUser.getId()).orElse(currentUser);
-
-            Set<Department> depts = reviewer.getAssignedDepartments();
-            Set<Ministry> mins = reviewer.getAssignedMinistries();
-            if ((depts == null || depts.isEmpty()) && (mins == null || mins.isEmpty())) {
-                return Collections.emptyList();
-            }
-            return recordRepository.findRecordsByReviewerAssignments(tenantId, statuses, depts, mins);
+            return getQueuePage(new RecordQueueFilter(tenantId, statuses,
+                    pageRequest.getDepartmentId(), pageRequest.getMinistryId(), currentUser.getId()), pageRequest);
         }
-        return Collections.emptyList();
+        return KeysetPage.empty();
     }
 
-    public List<MasterListRecord> getInvalidDocumentQueue(User currentUser) {
-        UUID tenantId = currentUser.getTenant().getId();
-        
-        if (currentUser.getRole() == Role.TENANT_ADMIN) {
-            return recordRepository.findAllByTenantIdAndStatusWithDetails(
-                tenantId, 
-                RecordStatus.FLAGGED_INVALID_DOCUMENT
-            );
+    /**
+     * Fills in the document URLs of a page of list-view records, which the projection leaves out,
+     * with one query over the page's record IDs.
+     */
+    private void attachDocumentUrls(List<MasterListRecordDto> records) {
+        if (records.isEmpty()) {
+            return;
         }
+        Map<UUID, List<String>> urlsByRecord = recordRepository
+                .findDocumentUrlsByRecordIds(records.stream().map(MasterListRecordDto::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(RecordDocumentUrl::getRecordId,
+                        Collectors.mapping(RecordDocumentUrl::getDocumentUrl, Collectors.toList())));
+        records.forEach(record -> record.setDocumentUrls(urlsByRecord.getOrDefault(record.getId(), List.of())));
+    }
 
-        if (currentUser.getRole() == Role.REVIEWER) {
-            User reviewer = userRepository.findUserWithAssignments(currentUser.getId()).orElse(currentUser);
-            
-            Set<Department> depts = reviewer.getAssignedDepartments();
-            Set<Ministry> mins = reviewer.getAssignedMinistries();
-            if ((depts == null || depts.isEmpty()) && (mins == null || mins.isEmpty())) {
-                return Collections.emptyList();
+    /**
+     * Reads one keyset page of a queue. One extra row is fetched to tell whether there is a next page,
+     * and the total is only counted for the first page so following pages cost a single index range scan.
+     */
+    private KeysetPage<MasterListRecordDto> getQueuePage(RecordQueueFilter filter, QueuePageRequestDto pageRequest) {
+        int size = pageRequest.getSize() == null || pageRequest.getSize() < 1
+                ? defaultQueuePageSize
+                : Math.min(pageRequest.getSize(), maxQueuePageSize);
+        RecordCursor after = null;
+        if (pageRequest.getCursor() != null && !pageRequest.getCursor().isBlank()) {
+            try {
+                after = RecordCursor.decode(pageRequest.getCursor());
+            } catch (IllegalArgumentException e) {
+                // A malformed or tampered cursor is a client error, not a server failure
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor.", e);
             }
-            List<RecordStatus> statuses = List.of(RecordStatus.FLAGGED_INVALID_DOCUMENT);
-            return recordRepository.findRecordsByReviewerAssignments(tenantId, statuses, depts, mins);
         }
 
-        return Collections.emptyList();
+        List<MasterListRecordDto> records = recordRepository.findQueuePage(filter, after, size + 1);
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            nextCursor = RecordCursor.of(records.get(size - 1)).encode();
+        }
+        Long totalCount = after == null ? recordRepository.countQueue(filter) : null;
+        return new KeysetPage<>(records, nextCursor, totalCount);
     }
 
-    public List<MasterListRecord> getFlaggedNotInSotQueue(User currentUser) {
-        UUID tenantId = currentUser.getTenant().getId();
-        return recordRepository.findAllByTenantIdAndStatusOrderByCreatedAtDesc(
-            tenantId, 
-            RecordStatus.FLAGGED_NOT_IN_SOT
-        );
+    /**
+     * Writes all of a tenant's records to the stream as a JSON array, one element at a time.
+     * Rows are read through a database cursor as projections (nothing is attached to the persistence
+     * context), so memory use does not grow with the number of records. Elements are not flushed one by
+     * one: the output is only flushed when the generator's buffer fills and at the end.
+     *
+     * @param tenantId The tenant whose records are written.
+     * @param out The stream to write the JSON array to; it is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public void writeTenantRecordsJson(UUID tenantId, OutputStream out) throws IOException {
+        ObjectWriter elementWriter = objectMapper.writerFor(MasterListRecordDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<MasterListRecordDto> records = recordRepository.streamRecordDtosByTenantId(tenantId)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<MasterListRecordDto> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                elementWriter.writeValue(generator, iterator.next());
+            }
+            generator.writeEndArray();
+        }
     }
 
     @Transactional
@@ -164,7 +221,11 @@ public class MasterListRecordService {
         }
 
         record.setLastUpdatedBy(reviewer);
-        return recordRepository.save(record);
+        MasterListRecord savedRecord = recordRepository.save(record);
+        if (request.getDepartment() != null || request.getMinistry() != null) {
+            reviewerAssignmentIndexService.refreshForRecords(List.of(savedRecord.getId()));
+        }
+        return savedRecord;
     }
 
     @Transactional
@@ -173,9 +234,9 @@ public class MasterListRecordService {
                 .orElseThrow(() -> new EntityNotFoundException("Record not found with ID: " + recordId));
 
         if (request.getDecision() == RecordStatus.REJECTED) {
-            record.setStatus(RecordStatus.REJECTED);
+            recordStatusCounterService.changeStatus(record, RecordStatus.REJECTED);
         } else {
-            record.setStatus(RecordStatus.REVIEWED);
+            recordStatusCounterService.changeStatus(record, RecordStatus.REVIEWED);
         }
 
         record.setValidatedBy(reviewer);
@@ -205,7 +266,7 @@ public class MasterListRecordService {
         // Update the record with the final details
         record.setWid(wid);
         record.setUser(employeeUser);
-        record.setStatus(RecordStatus.ACTIVE);
+        recordStatusCounterService.changeStatus(record, RecordStatus.ACTIVE);
         record.setValidatedBy(reviewer);
         record.setValidatedAt(Instant.now());
         record.setLastLivenessCheckDate(LocalDate.now());
@@ -230,11 +291,13 @@ public class MasterListRecordService {
         SotProfileDto sotProfile = objectMapper.readValue(record.getSotData(), SotProfileDto.class);
         updateRecordWithSotData(record, sotProfile);
         
-        record.setStatus(RecordStatus.AWAITING_REVIEW);
+        recordStatusCounterService.changeStatus(record, RecordStatus.AWAITING_REVIEW);
         record.setValidatedBy(reviewer);
         record.setValidatedAt(Instant.now());
 
-        return recordRepository.save(record);
+        MasterListRecord savedRecord = recordRepository.save(record);
+        reviewerAssignmentIndexService.refreshForRecords(List.of(savedRecord.getId()));
+        return savedRecord;
     }
     
     @Transactional
@@ -243,7 +306,7 @@ public class MasterListRecordService {
                 .orElseThrow(() -> new IllegalStateException("Record not found with ID: " + recordId));
 
         record.setPsn(newPsn);
-        record.setPsnHash(toSha256(newPsn));
+        record.setPsnHash(BlindIndex.sha256Hex(newPsn));
 
         return recordRepository.save(record);
     }
@@ -258,21 +321,6 @@ public class MasterListRecordService {
         record.setDepartment(findOrCreateDepartment(profile.getStateMinistry(), record.getTenant()));
     }
 
-    private String toSha256(String input) {
-        if (input == null) return null;
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            BigInteger number = new BigInteger(1, hash);
-            StringBuilder hexString = new StringBuilder(number.toString(16));
-            while (hexString.length() < 64) {
-                hexString.insert(0, '0');
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Could not find SHA-256 algorithm", e);
-        }
-    }
 
     private Department findOrCreateDepartment(String name, Tenant tenant) {
         if (name == null || name.isBlank()) return null;
@@ -1,6 +1,7 @@
 package com.proximaforte.bioverify.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proximaforte.bioverify.crypto.BlindIndex;
 import com.proximaforte.bioverify.domain.Department;
 import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.domain.Ministry;
@@ -25,10 +26,7 @@ import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -44,6 +42,8 @@ public class MasterListUploadService {
     private final MinistryRepository ministryRepository;
     private final DepartmentRepository departmentRepository;
     private final ObjectMapper objectMapper;
+    private final ReviewerAssignmentIndexService reviewerAssignmentIndexService;
+    private final RecordStatusCounterService recordStatusCounterService;
 
     private static final Map<String, List<String>> HEADER_ALIASES = Map.ofEntries(
         entry("psn", List.of("psn", "publicservicenumber")),
@@ -131,6 +131,8 @@ public class MasterListUploadService {
         Map<String, String> discoveredHeaders = findHeaderMappings(headers);
 
         List<MasterListRecord> recordsToSave = new ArrayList<>();
+        List<MasterListRecord> newRecords = new ArrayList<>();
+        StatusTransitions transitions = new StatusTransitions();
         List<UUID> recordsRequiringReviewIds = new ArrayList<>();
         int newRecordsCount = 0;
         int updatedRecordsCount = 0;
@@ -146,7 +148,7 @@ public class MasterListUploadService {
             String ssid = discoveredHeaders.containsKey("ssid") ? rowMap.get(discoveredHeaders.get("ssid")) : null;
             String nin = discoveredHeaders.containsKey("nin") ? rowMap.get(discoveredHeaders.get("nin")) : null;
 
-            String psnHash = toSha256(psn);
+            String psnHash = BlindIndex.sha256Hex(psn);
             Optional<MasterListRecord> existingRecordOpt = recordRepository.findByPsnHashAndTenantId(psnHash, tenant.getId());
             
             String gradeLevel = rowMap.get(discoveredHeaders.get("gradeLevel"));
@@ -161,18 +163,18 @@ public class MasterListUploadService {
                 
                 if (ssid != null && !ssid.isBlank()) {
                     existingRecord.setSsid(ssid);
-                    existingRecord.setSsidHash(toSha256(ssid));
+                    existingRecord.setSsidHash(BlindIndex.sha256Hex(ssid));
                 }
                 if (nin != null && !nin.isBlank()) {
                     existingRecord.setNin(nin);
-                    existingRecord.setNinHash(toSha256(nin));
+                    existingRecord.setNinHash(BlindIndex.sha256Hex(nin));
                 }
 
                 // --- UPDATED LOGIC ---
                 // If a critical change is detected, set the status directly to AWAITING_REVIEW
                 boolean isCriticalChange = !Objects.equals(existingRecord.getGradeLevel(), gradeLevel);
                 if (isCriticalChange && (existingRecord.getStatus() == RecordStatus.ACTIVE || existingRecord.getStatus() == RecordStatus.REVIEWED)) {
-                    existingRecord.setStatus(RecordStatus.AWAITING_REVIEW);
+                    transitions.changeStatus(existingRecord, RecordStatus.AWAITING_REVIEW);
                     recordsRequiringReviewIds.add(existingRecord.getId());
                 }
                 recordsToSave.add(existingRecord);
@@ -187,11 +189,11 @@ public class MasterListUploadService {
 
                 if (ssid != null && !ssid.isBlank()) {
                     newRecord.setSsid(ssid);
-                    newRecord.setSsidHash(toSha256(ssid));
+                    newRecord.setSsidHash(BlindIndex.sha256Hex(ssid));
                 }
                 if (nin != null && !nin.isBlank()) {
                     newRecord.setNin(nin);
-                    newRecord.setNinHash(toSha256(nin));
+                    newRecord.setNinHash(BlindIndex.sha256Hex(nin));
                 }
                 
                 String fullName = discoveredHeaders.containsKey("fullName") 
@@ -205,12 +207,18 @@ public class MasterListUploadService {
                 
                 newRecord.setGradeLevel(gradeLevel);
                 newRecord.setSalaryStructure(salaryStructure);
-                newRecord.setStatus(RecordStatus.PENDING_VERIFICATION);
+                transitions.changeStatus(newRecord, RecordStatus.PENDING_VERIFICATION);
                 recordsToSave.add(newRecord);
+                newRecords.add(newRecord);
             }
         }
         
         recordRepository.saveAll(recordsToSave);
+        recordStatusCounterService.apply(transitions);
+        // Only new records get a department/ministry here; add them to the matching reviewers' queues
+        reviewerAssignmentIndexService.refreshForRecords(newRecords.stream()
+                .map(MasterListRecord::getId)
+                .collect(Collectors.toList()));
         return new UploadSummaryDto(newRecordsCount, updatedRecordsCount, recordsRequiringReviewIds);
     }
     
@@ -240,21 +248,6 @@ public class MasterListUploadService {
         return mapping;
     }
     
-    private String toSha256(String input) {
-        if (input == null) return null;
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            BigInteger number = new BigInteger(1, hash);
-            StringBuilder hexString = new StringBuilder(number.toString(16));
-            while (hexString.length() < 64) {
-                hexString.insert(0, '0');
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not found", e);
-        }
-    }
 
     private Department findOrCreateDepartment(String name, Tenant tenant) {
         if (name == null || name.isBlank()) return null;
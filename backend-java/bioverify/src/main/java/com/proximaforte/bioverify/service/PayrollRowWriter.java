@@ -0,0 +1,145 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes master list records as payroll export rows, straight from the entity to the CSV printer.
+ *
+ * Fields are printed one by one in column order, so no per-row map or value list is built. The full
+ * name is split into first, middle and surname by scanning it once into reused buffers rather than
+ * with a regex. Not thread-safe: use one writer per printer.
+ */
+public class PayrollRowWriter {
+
+    // --- This list is the single source of truth for headers and their order. ---
+    public static final List<String> HEADERS = List.of(
+        "workId", "firstName", "middleName", "surname", "gradeLevel", "salaryStructure",
+        "ministry", "department", "email", "phoneNumber", "status", "bvn", "nin", "ssid",
+        "psn", "dateOfBirth", "gender", "cadre", "dateOfFirstAppointment",
+        "validatedByEmail", "validatedAt"
+    );
+
+    // Delta exports add the kind of change as a last column
+    public static final List<String> DELTA_HEADERS = Stream.concat(HEADERS.stream(), Stream.of("changeType")).toList();
+
+    private final CSVPrinter printer;
+    private final StringBuilder firstName = new StringBuilder(32);
+    private final StringBuilder middleName = new StringBuilder(32);
+    private final StringBuilder surname = new StringBuilder(32);
+
+    public PayrollRowWriter(CSVPrinter printer) {
+        this.printer = printer;
+    }
+
+    /**
+     * Writes one row in the order of {@link #HEADERS}.
+     */
+    public void write(MasterListRecord record) throws IOException {
+        printFields(record);
+        printer.println();
+    }
+
+    /**
+     * Writes one row in the order of {@link #DELTA_HEADERS}.
+     */
+    public void write(MasterListRecord record, ExportService.ChangeType changeType) throws IOException {
+        printFields(record);
+        printer.print(changeType.name());
+        printer.println();
+    }
+
+    private void printFields(MasterListRecord record) throws IOException {
+        splitFullName(record.getFullName());
+
+        print(record.getWid());
+        printer.print(firstName);
+        printer.print(middleName);
+        printer.print(surname);
+        print(record.getGradeLevel());
+        print(record.getSalaryStructure());
+        print(record.getMinistry() != null ? record.getMinistry().getName() : null);
+        print(record.getDepartment() != null ? record.getDepartment().getName() : null);
+        print(record.getEmail());
+        print(record.getPhoneNumber());
+        print(record.getStatus());
+        print(record.getBvn());
+        print(record.getNin());
+        print(record.getSsid());
+        print(record.getPsn());
+        print(record.getDateOfBirth());
+        print(record.getGender());
+        print(record.getCadre());
+        print(record.getDateOfFirstAppointment());
+        print(record.getValidatedBy() != null ? record.getValidatedBy().getEmail() : null);
+        print(record.getValidatedAt());
+    }
+
+    private void print(Object value) throws IOException {
+        printer.print(value != null ? value : "");
+    }
+
+    /**
+     * Splits the full name on whitespace: the first word is the first name, the last word (if there is
+     * more than one) the surname, and the words in between, joined by single spaces, the middle name.
+     */
+    private void splitFullName(String fullName) {
+        firstName.setLength(0);
+        middleName.setLength(0);
+        surname.setLength(0);
+        if (fullName == null) {
+            return;
+        }
+
+        int end = fullName.length();
+        while (end > 0 && isSpace(fullName.charAt(end - 1))) {
+            end--;
+        }
+        int start = 0;
+        while (start < end && isSpace(fullName.charAt(start))) {
+            start++;
+        }
+        if (start == end) {
+            return;
+        }
+
+        int firstEnd = start;
+        while (firstEnd < end && !isSpace(fullName.charAt(firstEnd))) {
+            firstEnd++;
+        }
+        firstName.append(fullName, start, firstEnd);
+        if (firstEnd == end) {
+            return;
+        }
+
+        int lastStart = end;
+        while (!isSpace(fullName.charAt(lastStart - 1))) {
+            lastStart--;
+        }
+        surname.append(fullName, lastStart, end);
+
+        // Everything between the first and last word, with each run of whitespace collapsed to one space
+        boolean pendingSpace = false;
+        for (int i = firstEnd; i < lastStart; i++) {
+            char c = fullName.charAt(i);
+            if (isSpace(c)) {
+                pendingSpace = middleName.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    middleName.append(' ');
+                    pendingSpace = false;
+                }
+                middleName.append(c);
+            }
+        }
+    }
+
+    // The characters matched by the regex \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,144 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.Tenant;
+import com.proximaforte.bioverify.domain.TenantStatusCounter;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import com.proximaforte.bioverify.repository.TenantRepository;
+import com.proximaforte.bioverify.repository.TenantStatusCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintains the per-tenant record status counters (tenant_status_counters).
+ *
+ * Every status change adjusts the counters in the caller's transaction, so they commit or roll back
+ * with the change itself. A scheduled reconciliation recomputes each tenant's counters from the records
+ * table and corrects any drift (e.g. from changes made outside the application).
+ */
+@Service
+public class RecordStatusCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordStatusCounterService.class);
+
+    private final TenantStatusCounterRepository counterRepository;
+    private final MasterListRecordRepository recordRepository;
+    private final TenantRepository tenantRepository;
+    private final TenantEventService tenantEventService;
+    private final RecordStatusCounterService self;
+
+    public RecordStatusCounterService(TenantStatusCounterRepository counterRepository,
+                                      MasterListRecordRepository recordRepository,
+                                      TenantRepository tenantRepository,
+                                      TenantEventService tenantEventService,
+                                      @Lazy RecordStatusCounterService self) {
+        this.counterRepository = counterRepository;
+        this.recordRepository = recordRepository;
+        this.tenantRepository = tenantRepository;
+        this.tenantEventService = tenantEventService;
+        this.self = self;
+    }
+
+    /**
+     * Sets a single record's status and adjusts the counters accordingly.
+     */
+    @Transactional
+    public void changeStatus(MasterListRecord record, RecordStatus newStatus) {
+        StatusTransitions transitions = new StatusTransitions();
+        transitions.changeStatus(record, newStatus);
+        apply(transitions);
+    }
+
+    /**
+     * Applies the net counter changes collected for a batch of records, and marks the affected tenants'
+     * live dashboards for an update once the transaction commits.
+     */
+    @Transactional
+    public void apply(StatusTransitions transitions) {
+        transitions.getDeltasByTenant().forEach((tenantId, deltas) -> {
+            boolean changed = false;
+            for (Map.Entry<RecordStatus, Long> delta : deltas.entrySet()) {
+                if (delta.getValue() != 0) {
+                    counterRepository.addToCount(tenantId, delta.getKey().name(), delta.getValue());
+                    changed = true;
+                }
+            }
+            if (changed) {
+                tenantEventService.markStatsChanged(tenantId);
+            }
+        });
+    }
+
+    /**
+     * Returns the tenant's record count per status, or an empty map if its counters have not been built yet.
+     */
+    @Transactional(readOnly = true)
+    public Map<RecordStatus, Long> getCounts(UUID tenantId) {
+        Map<RecordStatus, Long> counts = new EnumMap<>(RecordStatus.class);
+        counterRepository.findAllByTenantId(tenantId)
+                .forEach(counter -> counts.put(counter.getStatus(), counter.getRecordCount()));
+        return counts;
+    }
+
+    /**
+     * Recomputes every tenant's counters, one transaction per tenant.
+     * Runs shortly after startup (building counters for existing data) and then periodically.
+     */
+    @Scheduled(initialDelayString = "${app.dashboard.counters.reconcile-initial-delay:PT1M}",
+               fixedDelayString = "${app.dashboard.counters.reconcile-interval:PT1H}")
+    public void reconcileAll() {
+        for (Tenant tenant : tenantRepository.findAll()) {
+            try {
+                self.reconcile(tenant.getId());
+            } catch (Exception e) {
+                logger.error("Failed to reconcile status counters for tenant {}", tenant.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * Recomputes one tenant's counters. The existing counter rows are locked first, so status changes
+     * that commit while the records are being counted wait and then apply their deltas on top.
+     */
+    @Transactional
+    public void reconcile(UUID tenantId) {
+        Map<RecordStatus, Long> current = new EnumMap<>(RecordStatus.class);
+        for (TenantStatusCounter counter : counterRepository.lockAllByTenantId(tenantId)) {
+            current.put(counter.getStatus(), counter.getRecordCount());
+        }
+
+        Map<RecordStatus, Long> actual = new EnumMap<>(RecordStatus.class);
+        recordRepository.countByStatusForTenant(tenantId)
+                .forEach(count -> actual.put(count.getStatus(), count.getTotal()));
+
+        for (RecordStatus status : RecordStatus.values()) {
+            Long expected = actual.getOrDefault(status, 0L);
+            Long stored = current.get(status);
+            if (!Objects.equals(stored, expected) && (stored != null || expected != 0)) {
+                if (stored != null) {
+                    logger.warn("Status counter drift for tenant {} status {}: stored {}, actual {}", tenantId, status, stored, expected);
+                }
+                counterRepository.setCount(tenantId, status.name(), expected);
+                tenantEventService.markStatsChanged(tenantId);
+            }
+        }
+    }
+
+    /**
+     * Removes a deleted tenant's counters.
+     */
+    @Transactional
+    public void deleteCounters(UUID tenantId) {
+        counterRepository.deleteAllByTenantId(tenantId);
+    }
+}
@@ -0,0 +1,71 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import com.proximaforte.bioverify.repository.ReviewerRecordAssignmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the reviewer_record_assignments index in step with reviewer assignments and record
+ * department/ministry changes. Refreshes run in the caller's transaction, so the index commits
+ * (or rolls back) together with the change that caused it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewerAssignmentIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewerAssignmentIndexService.class);
+    // Keeps IN lists well below PostgreSQL's bind parameter limit
+    private static final int RECORD_BATCH_SIZE = 1_000;
+
+    private final ReviewerRecordAssignmentRepository assignmentRepository;
+    private final MasterListRecordRepository recordRepository;
+
+    /**
+     * Re-derives a reviewer's queue after their department/ministry assignments changed.
+     */
+    @Transactional
+    public void refreshForReviewer(UUID reviewerId) {
+        recordRepository.flush();
+        assignmentRepository.deleteByReviewerId(reviewerId);
+        assignmentRepository.insertForReviewer(reviewerId);
+    }
+
+    /**
+     * Re-derives which reviewers see the given records after they were created or their department/ministry changed.
+     */
+    @Transactional
+    public void refreshForRecords(Collection<UUID> recordIds) {
+        if (recordIds.isEmpty()) {
+            return;
+        }
+        recordRepository.flush();
+        List<UUID> ids = new ArrayList<>(recordIds);
+        for (int from = 0; from < ids.size(); from += RECORD_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + RECORD_BATCH_SIZE, ids.size()));
+            assignmentRepository.deleteByRecordIds(batch);
+            assignmentRepository.insertForRecords(batch);
+        }
+    }
+
+    /**
+     * Runs every night at 2:30 AM server time.
+     * Rebuilds the whole index, removing rows for deleted users/records and repairing any drift.
+     */
+    @Scheduled(cron = "${app.reviewer-queue.rebuild-cron:0 30 2 * * ?}")
+    @Transactional
+    public void rebuild() {
+        int removed = assignmentRepository.deleteAllRows();
+        int inserted = assignmentRepository.insertAll();
+        logger.info("Rebuilt reviewer queue index: removed {} rows, inserted {} rows.", removed, inserted);
+    }
+}
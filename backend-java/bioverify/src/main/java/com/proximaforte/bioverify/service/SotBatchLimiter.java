@@ -0,0 +1,175 @@
+package com.proximaforte.bioverify.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of batched SoT lookups running at once per tenant, across all batches.
+ *
+ * Each tenant has one pool of permits shared by every concurrent batch request, so two batches for the
+ * same tenant together never exceed its limit. Waiting for a permit does not block a thread: a lookup
+ * is subscribed only once a permit is free, and a cancelled wait leaves the queue.
+ *
+ * When a tenant's limit changes, its pool is resized in place. A higher limit hands out the extra
+ * permits at once; a lower one admits no new lookup until enough running lookups have finished to get
+ * under it.
+ */
+@Component
+public class SotBatchLimiter {
+
+    private final Map<UUID, Permits> permitsByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the lookup once one of the tenant's permits is free, releasing it when the lookup terminates
+     * or is cancelled.
+     *
+     * @param limit The tenant's current limit; the pool is resized when it changes.
+     */
+    public <T> Mono<T> limit(UUID tenantId, int limit, Supplier<Mono<T>> lookup) {
+        Permits permits = permitsByTenant.computeIfAbsent(tenantId, id -> new Permits(limit));
+        permits.resize(limit);
+        return Mono.usingWhen(permits.acquire(),
+                permit -> Mono.defer(lookup),
+                permit -> permit.release(),
+                (permit, e) -> permit.release(),
+                permit -> permit.release());
+    }
+
+    private static final class Permits {
+        private final Queue<Waiter> waiters = new ArrayDeque<>();
+        private int limit;
+        // Negative after the limit was lowered below the number of permits in use
+        private int available;
+
+        Permits(int limit) {
+            this.limit = limit;
+            this.available = limit;
+        }
+
+        Mono<Permit> acquire() {
+            return Mono.create(sink -> {
+                Waiter waiter = new Waiter(this, sink);
+                sink.onCancel(waiter::cancel);
+                boolean granted;
+                synchronized (this) {
+                    granted = available > 0;
+                    if (granted) {
+                        available--;
+                    } else {
+                        waiters.add(waiter);
+                    }
+                }
+                if (granted && !waiter.grant()) {
+                    // Cancelled before the permit could be handed over
+                    release();
+                }
+            });
+        }
+
+        void resize(int newLimit) {
+            int added;
+            synchronized (this) {
+                if (newLimit == limit) {
+                    return;
+                }
+                added = newLimit - limit;
+                limit = newLimit;
+                available += Math.min(added, 0);
+            }
+            // Each extra permit goes to a waiter, or to the pool
+            for (int i = 0; i < added; i++) {
+                release();
+            }
+        }
+
+        /**
+         * Hands the permit to the next waiter still waiting, or returns it to the pool. While the pool
+         * is over a lowered limit, the permit is retired instead.
+         */
+        void release() {
+            while (true) {
+                Waiter next;
+                synchronized (this) {
+                    if (available < 0) {
+                        available++;
+                        return;
+                    }
+                    next = waiters.poll();
+                    if (next == null) {
+                        available++;
+                        return;
+                    }
+                }
+                if (next.grant()) {
+                    return;
+                }
+            }
+        }
+
+        synchronized void remove(Waiter waiter) {
+            waiters.remove(waiter);
+        }
+    }
+
+    private static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Permits permits;
+        private final MonoSink<Permit> sink;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Permit permit;
+
+        Waiter(Permits permits, MonoSink<Permit> sink) {
+            this.permits = permits;
+            this.sink = sink;
+        }
+
+        boolean grant() {
+            // Set before the state changes, so a concurrent cancel always sees the permit it must release
+            Permit granted = new Permit(permits);
+            permit = granted;
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            sink.success(granted);
+            return true;
+        }
+
+        void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                permits.remove(this);
+            } else if (state.get() == GRANTED) {
+                // Granted, but the subscriber may have gone before receiving it; releasing is idempotent
+                permit.release();
+            }
+        }
+    }
+
+    private static final class Permit {
+        private final Permits permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Permits permits) {
+            this.permits = permits;
+        }
+
+        Mono<Void> release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+            return Mono.empty();
+        }
+    }
+}
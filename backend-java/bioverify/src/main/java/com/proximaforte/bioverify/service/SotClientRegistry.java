@@ -0,0 +1,176 @@
+package com.proximaforte.bioverify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proximaforte.bioverify.domain.Tenant;
+import com.proximaforte.bioverify.dto.IdentitySourceConfigDto;
+import com.proximaforte.bioverify.exception.TenantConfigurationException;
+import com.proximaforte.bioverify.exception.TenantNotFoundException;
+import com.proximaforte.bioverify.repository.TenantRepository;
+import io.netty.channel.ChannelOption;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.endpoint.WebClientReactiveClientCredentialsTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one ready-to-use Source of Truth client per tenant.
+ *
+ * Each entry caches the tenant's parsed identity source configuration and a WebClient built on a
+ * shared, pooled connection provider. For OAuth2 providers the WebClient carries an authorized
+ * client manager, so access tokens are reused until they expire instead of being requested on every
+ * lookup. All requests (token requests included) are bounded by connect and response timeouts.
+ * Entries are dropped when the tenant's configuration changes.
+ */
+@Service
+public class SotClientRegistry implements DisposableBean {
+
+    private final TenantRepository tenantRepository;
+    private final EncryptionService encryptionService;
+    private final ObjectMapper objectMapper;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final Map<UUID, SotClient> clients = new ConcurrentHashMap<>();
+
+    public SotClientRegistry(TenantRepository tenantRepository,
+                             EncryptionService encryptionService,
+                             ObjectMapper objectMapper,
+                             WebClient.Builder webClientBuilder,
+                             @Value("${app.sot.client.max-connections:50}") int maxConnections,
+                             @Value("${app.sot.client.pending-acquire-timeout:PT10S}") Duration pendingAcquireTimeout,
+                             @Value("${app.sot.client.max-idle-time:PT30S}") Duration maxIdleTime,
+                             @Value("${app.sot.client.connect-timeout:PT5S}") Duration connectTimeout,
+                             @Value("${app.sot.client.response-timeout:PT15S}") Duration responseTimeout) {
+        this.tenantRepository = tenantRepository;
+        this.encryptionService = encryptionService;
+        this.objectMapper = objectMapper;
+        this.connectionProvider = ConnectionProvider.builder("sot-lookup")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .build();
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                        .responseTimeout(responseTimeout)))
+                .build();
+    }
+
+    /**
+     * Returns the SoT client for a tenant, building and caching it on first use.
+     *
+     * @param tenantId The ID of the tenant.
+     * @return The cached client for the tenant.
+     */
+    public SotClient getClient(UUID tenantId) {
+        return clients.computeIfAbsent(tenantId, this::buildClient);
+    }
+
+    /**
+     * Drops the cached client for a tenant once the current transaction (if any) commits,
+     * so the next lookup picks up the updated configuration.
+     *
+     * @param tenantId The ID of the tenant whose configuration changed.
+     */
+    public void invalidate(UUID tenantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clients.remove(tenantId);
+                }
+            });
+        } else {
+            clients.remove(tenantId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+
+    private SotClient buildClient(UUID tenantId) {
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new TenantNotFoundException("Configuration for tenant " + tenantId + " not found."));
+
+        String jsonConfig = tenant.getIdentitySourceConfig();
+        if (jsonConfig == null || jsonConfig.isBlank()) {
+            throw new TenantConfigurationException("SoT API configuration is missing for tenant " + tenantId);
+        }
+
+        IdentitySourceConfigDto config;
+        try {
+            config = objectMapper.readValue(jsonConfig, IdentitySourceConfigDto.class);
+        } catch (JsonProcessingException e) {
+            throw new TenantConfigurationException("SoT API configuration is invalid for tenant " + tenantId);
+        }
+
+        if ("OPTIMA".equalsIgnoreCase(config.getProviderName())) {
+            return new SotClient(config, webClient);
+        }
+        return new SotClient(config, buildOAuthClient(tenantId.toString(), config));
+    }
+
+    private WebClient buildOAuthClient(String registrationId, IdentitySourceConfigDto config) {
+        ClientRegistration clientRegistration = ClientRegistration
+                .withRegistrationId(registrationId)
+                .clientId(config.getClientId())
+                .clientSecret(encryptionService.decryptCredential(config.getClientSecretEncrypted()))
+                .tokenUri(config.getTokenUri())
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope("api.read")
+                .build();
+        InMemoryReactiveClientRegistrationRepository registrationRepository =
+                new InMemoryReactiveClientRegistrationRepository(clientRegistration);
+        AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager =
+                new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(
+                        registrationRepository,
+                        new InMemoryReactiveOAuth2AuthorizedClientService(registrationRepository));
+        // Token requests go through the same pooled, time-limited client as the lookups themselves
+        WebClientReactiveClientCredentialsTokenResponseClient tokenResponseClient =
+                new WebClientReactiveClientCredentialsTokenResponseClient();
+        tokenResponseClient.setWebClient(webClient);
+        authorizedClientManager.setAuthorizedClientProvider(ReactiveOAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials(builder -> builder.accessTokenResponseClient(tokenResponseClient))
+                .build());
+
+        ServerOAuth2AuthorizedClientExchangeFilterFunction oauth2Filter =
+                new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+        oauth2Filter.setDefaultClientRegistrationId(registrationId);
+        return webClient.mutate()
+                .filter(oauth2Filter)
+                .build();
+    }
+
+    /**
+     * A tenant's parsed identity source configuration together with the WebClient used to reach it.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SotClient {
+        private final IdentitySourceConfigDto config;
+        private final WebClient webClient;
+    }
+}
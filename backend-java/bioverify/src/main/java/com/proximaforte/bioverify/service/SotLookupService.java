@@ -1,59 +1,186 @@
 package com.proximaforte.bioverify.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.proximaforte.bioverify.domain.Tenant;
+import com.proximaforte.bioverify.domain.MasterListRecord;
 import com.proximaforte.bioverify.dto.IdentitySourceConfigDto;
+import com.proximaforte.bioverify.dto.SotIdentityDto;
+import com.proximaforte.bioverify.dto.SotLookupResultDto;
 import com.proximaforte.bioverify.dto.SotProfileDto;
-import com.proximaforte.bioverify.exception.TenantConfigurationException;
-import com.proximaforte.bioverify.exception.TenantNotFoundException;
-import com.proximaforte.bioverify.repository.TenantRepository;
+import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
-import org.springframework.http.HttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
-import org.springframework.security.oauth2.client.registration.ClientRegistration;
-import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
-import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.security.oauth2.client.web.reactive.function.client.ServletOAuth2AuthorizedClientExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SotLookupService {
 
-    private final TenantRepository tenantRepository;
-    private final EncryptionService encryptionService;
+    private final SotClientRegistry sotClientRegistry;
+    private final SotProfileCache profileCache;
+    private final SotResilience sotResilience;
+    private final SotBatchLimiter batchLimiter;
+    private final MasterListRecordRepository recordRepository;
     private final ObjectMapper objectMapper;
-    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
 
-    @SneakyThrows
-    public Mono<SotProfileDto> getProfile(UUID tenantId, String ssid, String nin) {
-        Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException("Configuration for tenant " + tenantId + " not found."));
+    @Value("${app.sot.batch.max-concurrency:8}")
+    private int defaultBatchConcurrency;
+
+    @Value("${app.sot.local-snapshot.enabled:false}")
+    private boolean localSnapshotEnabled;
+
+    @Value("${app.sot.local-snapshot.freshness:P30D}")
+    private Duration localSnapshotFreshness;
 
-        String jsonConfig = tenant.getIdentitySourceConfig();
-        if (jsonConfig == null || jsonConfig.isBlank()) {
-            throw new TenantConfigurationException("SoT API configuration is missing for tenant " + tenantId);
+    // Lookups currently in progress, shared by concurrent callers asking for the same identity
+    private final Map<SotProfileCache.ProfileKey, Mono<Optional<SotProfileDto>>> inFlightLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up an identity in the tenant's Source of Truth, answering repeat lookups from the profile cache.
+     * An identity the provider does not know completes empty; that result is cached too (with a shorter TTL).
+     * Concurrent calls for the same tenant/SSID/NIN while a lookup is in progress share that lookup.
+     * When app.sot.local-snapshot.enabled is set, a record whose stored SoT data was verified within the
+     * freshness window answers the lookup without calling the provider.
+     */
+    public Mono<SotProfileDto> getProfile(UUID tenantId, String ssid, String nin) {
+        SotProfileCache.ProfileKey key = profileCache.keyFor(tenantId, ssid, nin);
+        Optional<SotProfileDto> cached = profileCache.get(key);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached);
         }
 
-        IdentitySourceConfigDto config = objectMapper.readValue(jsonConfig, IdentitySourceConfigDto.class);
+        return coalesce(key, () -> findLocalSnapshot(key)
+                        .switchIfEmpty(Mono.defer(() -> fetchProfile(tenantId, ssid, nin)))
+                        .doOnNext(result -> profileCache.put(key, result)))
+                .flatMap(Mono::justOrEmpty);
+    }
 
-        if ("OPTIMA".equalsIgnoreCase(config.getProviderName())) {
-            return getProfileFromOptimaProvider(config, nin, ssid);
-        } else {
-            return getProfileWithOAuth2(tenant.getId().toString(), config, nin, ssid);
+    /**
+     * Looks up many identities against the tenant's Source of Truth, pipelining the provider calls.
+     * At most the tenant's configured number of lookups (maxConcurrentLookups, or
+     * app.sot.batch.max-concurrency) run at once, counted across all of the tenant's concurrent batches.
+     * Identities are requested from the source only as lookups complete, and results are emitted as soon
+     * as they arrive, so they are not in input order.
+     * A failed lookup is reported in its result rather than terminating the stream.
+     *
+     * @param tenantId The ID of the tenant whose SoT should be queried.
+     * @param identities The SSID/NIN pairs to look up.
+     * @return One result per identity.
+     */
+    public Flux<SotLookupResultDto> getProfiles(UUID tenantId, Flux<SotIdentityDto> identities) {
+        return Flux.defer(() -> {
+            Integer tenantLimit = sotClientRegistry.getClient(tenantId).getConfig().getMaxConcurrentLookups();
+            int concurrency = tenantLimit != null && tenantLimit > 0 ? tenantLimit : defaultBatchConcurrency;
+
+            return identities.flatMap(identity -> batchLimiter.limit(tenantId, concurrency,
+                                    () -> getProfile(tenantId, identity.getSsid(), identity.getNin()))
+                            .map(profile -> SotLookupResultDto.found(identity, profile))
+                            .defaultIfEmpty(SotLookupResultDto.notFound(identity))
+                            .onErrorResume(e -> Mono.just(SotLookupResultDto.failed(identity, e.getMessage()))),
+                    concurrency);
+        });
+    }
+
+    /**
+     * Returns the in-flight lookup for the key if there is one, otherwise starts a new shared lookup.
+     * The entry is only registered when the returned Mono is subscribed, so an unsubscribed lookup never
+     * lingers in the map, and it is removed as soon as the lookup terminates (only if it is still the
+     * registered entry), so errors are never replayed to later callers.
+     */
+    private Mono<Optional<SotProfileDto>> coalesce(SotProfileCache.ProfileKey key,
+                                                   Supplier<Mono<Optional<SotProfileDto>>> lookup) {
+        return Mono.defer(() -> {
+            boolean[] started = {false};
+            Mono<Optional<SotProfileDto>> shared = inFlightLookups.computeIfAbsent(key, k -> {
+                started[0] = true;
+                AtomicReference<Mono<Optional<SotProfileDto>>> entry = new AtomicReference<>();
+                entry.set(Mono.defer(lookup)
+                        .doFinally(signal -> inFlightLookups.remove(k, entry.get()))
+                        .cache());
+                return entry.get();
+            });
+            if (!started[0]) {
+                meterRegistry.counter("sot.lookup.coalesced").increment();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * Finds the SoT data stored on the tenant's record with these blind indexes, if it is fresh enough.
+     * Completes empty (so the provider is called) when the mode is off or there is no usable snapshot.
+     */
+    private Mono<Optional<SotProfileDto>> findLocalSnapshot(SotProfileCache.ProfileKey key) {
+        if (!localSnapshotEnabled) {
+            return Mono.empty();
         }
+        return Mono.fromCallable(() -> {
+                    Instant freshSince = Instant.now().minus(localSnapshotFreshness);
+                    return recordRepository.findByTenantIdAndSsidHashAndNinHash(key.tenantId(), key.ssidHash(), key.ninHash())
+                            .filter(record -> record.getVerifiedAt() != null && record.getVerifiedAt().isAfter(freshSince))
+                            .map(MasterListRecord::getSotData)
+                            .filter(sotData -> !sotData.isBlank())
+                            .map(this::readSnapshot)
+                            .orElse(null);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(Optional::of)
+                .doOnNext(snapshot -> meterRegistry.counter("sot.lookup.local-snapshot").increment());
+    }
+
+    private SotProfileDto readSnapshot(String sotData) {
+        try {
+            return objectMapper.readValue(sotData, SotProfileDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable SoT snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Calls the tenant's provider through its timeout, bulkhead and circuit breaker (hedged, as lookups are
+     * idempotent). "Not found" is emitted as an empty Optional so it counts as a successful call.
+     */
+    private Mono<Optional<SotProfileDto>> fetchProfile(UUID tenantId, String ssid, String nin) {
+        SotClientRegistry.SotClient client = sotClientRegistry.getClient(tenantId);
+        IdentitySourceConfigDto config = client.getConfig();
+
+        return sotResilience.executeHedged(tenantId, config.getProviderName(), () -> {
+            Mono<SotProfileDto> profile;
+            if ("OPTIMA".equalsIgnoreCase(config.getProviderName())) {
+                profile = getProfileFromOptimaProvider(client.getWebClient(), config, nin, ssid);
+            } else {
+                profile = getProfileWithOAuth2(client.getWebClient(), config, nin, ssid);
+            }
+            return profile
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(Optional.empty()));
+        });
     }
 
-    private Mono<SotProfileDto> getProfileFromOptimaProvider(IdentitySourceConfigDto config, String nin, String ssid) {
-        WebClient webClient = webClientBuilder.build();
+    private Mono<SotProfileDto> getProfileFromOptimaProvider(WebClient webClient, IdentitySourceConfigDto config, String nin, String ssid) {
         String baseUrl = config.getApiBaseUrl();
 
         // Step 1: Call /encrypt
@@ -87,10 +214,13 @@ public class SotLookupService {
                     .retrieve()
                     .bodyToMono(ApiResponseWrapper.class);
             })
-            .map(decryptResponse -> {
-                // Final Step: Parse the decrypted JSON
+            .mapNotNull(decryptResponse -> {
+                // Final Step: Parse the decrypted JSON (no data means the identity was not found)
                 try {
                     String finalJson = decryptResponse.getData();
+                    if (finalJson == null || finalJson.isBlank()) {
+                        return null;
+                    }
                     return objectMapper.readValue(finalJson, SotProfileDto.class);
                 } catch (Exception e) {
                     throw new RuntimeException("Failed to parse final decrypted response", e);
@@ -103,9 +233,8 @@ public class SotLookupService {
     private static class ApiResponseWrapper {
         private String data;
     }
-    
-    private Mono<SotProfileDto> getProfileWithOAuth2(String registrationId, IdentitySourceConfigDto config, String nin, String ssid) {
-        WebClient webClient = buildOAuthClientForConfig(registrationId, config);
+
+    private Mono<SotProfileDto> getProfileWithOAuth2(WebClient webClient, IdentitySourceConfigDto config, String nin, String ssid) {
         String lookupUrl = config.getApiBaseUrl() + "/v1/identities/lookup";
         return webClient.get()
                 .uri(lookupUrl, uriBuilder -> uriBuilder
@@ -115,22 +244,4 @@ public class SotLookupService {
                 .retrieve()
                 .bodyToMono(SotProfileDto.class);
     }
-
-    private WebClient buildOAuthClientForConfig(String registrationId, IdentitySourceConfigDto config) {
-        String decryptedSecret = encryptionService.decrypt(config.getClientSecretEncrypted());
-        ClientRegistration clientRegistration = ClientRegistration
-                .withRegistrationId(registrationId)
-                .clientId(config.getClientId())
-                .clientSecret(decryptedSecret)
-                .tokenUri(config.getTokenUri())
-                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
-                .scope("api.read")
-                .build();
-        InMemoryClientRegistrationRepository registrationRepository = new InMemoryClientRegistrationRepository(clientRegistration);
-        ServletOAuth2AuthorizedClientExchangeFilterFunction oauth2Filter =
-                new ServletOAuth2AuthorizedClientExchangeFilterFunction(registrationRepository, null);
-        return webClientBuilder.build().mutate()
-                .apply(oauth2Filter.oauth2Configuration())
-                .build();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.proximaforte.bioverify.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.proximaforte.bioverify.crypto.BlindIndex;
+import com.proximaforte.bioverify.dto.SotProfileDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A tenant-scoped, size-bounded cache of Source of Truth profiles.
+ *
+ * Entries are keyed by the tenant and the blind indexes (SHA-256 hashes) of the SSID and NIN, so no
+ * raw identifiers are held as keys. Found profiles and "not found" results are cached with separate
+ * TTLs. Hit/miss/eviction metrics are published under the "sot.profile" cache name.
+ */
+@Component
+public class SotProfileCache {
+
+    private final Cache<ProfileKey, Optional<SotProfileDto>> cache;
+
+    public SotProfileCache(MeterRegistry meterRegistry,
+                           @Value("${app.sot.profile-cache.ttl:PT15M}") Duration ttl,
+                           @Value("${app.sot.profile-cache.negative-ttl:PT2M}") Duration negativeTtl,
+                           @Value("${app.sot.profile-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<ProfileKey, Optional<SotProfileDto>>() {
+                    @Override
+                    public long expireAfterCreate(ProfileKey key, Optional<SotProfileDto> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ProfileKey key, Optional<SotProfileDto> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ProfileKey key, Optional<SotProfileDto> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sot.profile");
+    }
+
+    public ProfileKey keyFor(UUID tenantId, String ssid, String nin) {
+        return new ProfileKey(tenantId, BlindIndex.sha256Hex(ssid.trim()), BlindIndex.sha256Hex(nin.trim()));
+    }
+
+    /**
+     * @return The cached lookup result (empty if the identity was not found), or null on a cache miss.
+     */
+    public Optional<SotProfileDto> get(ProfileKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(ProfileKey key, Optional<SotProfileDto> result) {
+        cache.put(key, result);
+    }
+
+    /**
+     * Identifies one identity lookup within a tenant by the blind indexes of its SSID and NIN.
+     */
+    public record ProfileKey(UUID tenantId, String ssidHash, String ninHash) {
+    }
+}
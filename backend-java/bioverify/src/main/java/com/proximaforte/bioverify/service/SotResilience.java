@@ -0,0 +1,144 @@
+package com.proximaforte.bioverify.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant fault isolation for calls to Source of Truth providers.
+ *
+ * Every call is bounded by a timeout and runs through a tenant-specific bulkhead (maximum concurrent
+ * calls, rejected immediately when full) and circuit breaker (fails fast while the provider is failing).
+ * Idempotent lookups can additionally be hedged: if no answer has arrived after the hedge delay, a second
+ * attempt is started and whichever answers first wins.
+ *
+ * Latency is published as the "sot.lookup.latency" timer (with percentiles) tagged by tenant, provider
+ * and outcome. Calls of bulk verification jobs (job submission and status polls) have their own, longer
+ * timeout and are timed separately as "sot.bulk.latency", so they do not skew the lookup percentiles.
+ * Circuit breaker and bulkhead state are published under the resilience4j meter names.
+ */
+@Component
+public class SotResilience {
+
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Duration callTimeout;
+    @Getter
+    private final Duration bulkCallTimeout;
+    private final Duration hedgeDelay;
+
+    public SotResilience(MeterRegistry meterRegistry,
+                         @Value("${app.sot.resilience.call-timeout:PT20S}") Duration callTimeout,
+                         @Value("${app.sot.resilience.bulk-call-timeout:PT2M}") Duration bulkCallTimeout,
+                         @Value("${app.sot.resilience.hedge-delay:PT0S}") Duration hedgeDelay,
+                         @Value("${app.sot.resilience.bulkhead.max-concurrent-calls:25}") int maxConcurrentCalls,
+                         @Value("${app.sot.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                         @Value("${app.sot.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                         @Value("${app.sot.resilience.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+                         @Value("${app.sot.resilience.circuit-breaker.wait-duration-in-open-state:PT30S}") Duration waitDurationInOpenState) {
+        this.meterRegistry = meterRegistry;
+        this.callTimeout = callTimeout;
+        this.bulkCallTimeout = bulkCallTimeout;
+        this.hedgeDelay = hedgeDelay;
+
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .build());
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Runs a provider call with the tenant's timeout, bulkhead and circuit breaker.
+     *
+     * @param tenantId The ID of the tenant whose provider is being called.
+     * @param providerName The provider name, used to tag metrics.
+     * @param call Creates the call; invoked once per subscription.
+     * @return The protected call.
+     */
+    public <T> Mono<T> execute(UUID tenantId, String providerName, Supplier<Mono<T>> call) {
+        return timed("sot.lookup.latency", "Latency of Source of Truth provider calls",
+                tenantId, providerName, attempt(tenantId, callTimeout, call));
+    }
+
+    /**
+     * Like {@link #execute}, for the calls of a bulk verification job: bounded by
+     * app.sot.resilience.bulk-call-timeout instead of the lookup timeout, and timed as "sot.bulk.latency".
+     */
+    public <T> Mono<T> executeBulk(UUID tenantId, String providerName, Supplier<Mono<T>> call) {
+        return timed("sot.bulk.latency", "Latency of Source of Truth bulk verification calls",
+                tenantId, providerName, attempt(tenantId, bulkCallTimeout, call));
+    }
+
+    /**
+     * Like {@link #execute}, but also starts a second attempt when the first has not answered within
+     * app.sot.resilience.hedge-delay (disabled when zero). Only use this for idempotent calls, and make sure
+     * a successful call always emits a value: the first attempt to emit wins and the other is cancelled.
+     */
+    public <T> Mono<T> executeHedged(UUID tenantId, String providerName, Supplier<Mono<T>> call) {
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative()) {
+            return execute(tenantId, providerName, call);
+        }
+
+        Mono<T> hedge = Mono.delay(hedgeDelay)
+                .doOnNext(tick -> meterRegistry.counter("sot.lookup.hedged", "provider", tagValue(providerName)).increment())
+                .then(attempt(tenantId, callTimeout, call));
+        return timed("sot.lookup.latency", "Latency of Source of Truth provider calls",
+                tenantId, providerName, Mono.firstWithValue(attempt(tenantId, callTimeout, call), hedge));
+    }
+
+    private <T> Mono<T> attempt(UUID tenantId, Duration timeout, Supplier<Mono<T>> call) {
+        String name = "sot-" + tenantId;
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+
+        return Mono.defer(call)
+                .timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private <T> Mono<T> timed(String timerName, String description, UUID tenantId, String providerName, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doFinally(signal -> sample.stop(Timer.builder(timerName)
+                    .description(description)
+                    .tag("tenant", tenantId.toString())
+                    .tag("provider", tagValue(providerName))
+                    .tag("outcome", signal == SignalType.ON_ERROR ? "error" : signal == SignalType.CANCEL ? "cancelled" : "success")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)));
+        });
+    }
+
+    private String tagValue(String providerName) {
+        return providerName == null || providerName.isBlank() ? "unknown" : providerName.toUpperCase();
+    }
+}
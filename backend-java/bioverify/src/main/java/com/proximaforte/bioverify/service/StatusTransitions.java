@@ -0,0 +1,50 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Collects the net effect of many record status changes on the per-tenant status counters,
+ * so a bulk operation adjusts each counter once instead of once per record.
+ *
+ * Tenants and statuses iterate in a fixed order (tenant UUID, then status name, matching the
+ * reconciliation's lock order), so concurrent transactions always lock counter rows in the same order.
+ */
+public class StatusTransitions {
+
+    private final Map<UUID, Map<RecordStatus, Long>> deltasByTenant = new TreeMap<>();
+
+    /**
+     * Sets the record's status and records the transition.
+     */
+    public void changeStatus(MasterListRecord record, RecordStatus newStatus) {
+        RecordStatus previous = record.getStatus();
+        record.setStatus(newStatus);
+        record(record.getTenant().getId(), previous, newStatus);
+    }
+
+    /**
+     * Records a transition; a null "from" means the record is new.
+     */
+    public void record(UUID tenantId, RecordStatus from, RecordStatus to) {
+        if (from == to) {
+            return;
+        }
+        Map<RecordStatus, Long> deltas = deltasByTenant.computeIfAbsent(tenantId, id -> new TreeMap<>(Comparator.comparing(RecordStatus::name)));
+        if (from != null) {
+            deltas.merge(from, -1L, Long::sum);
+        }
+        if (to != null) {
+            deltas.merge(to, 1L, Long::sum);
+        }
+    }
+
+    Map<UUID, Map<RecordStatus, Long>> getDeltasByTenant() {
+        return deltasByTenant;
+    }
+}
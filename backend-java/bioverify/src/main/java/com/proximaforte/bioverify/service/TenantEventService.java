@@ -0,0 +1,217 @@
+package com.proximaforte.bioverify.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Pushes live updates to a tenant's open admin pages over server-sent events.
+ *
+ * Each tenant has its own set of subscribers. An event is serialized once and written to every
+ * subscriber of the tenant, so open dashboards are updated without polling. Dashboard statistics are
+ * not pushed on every change: changes only mark the tenant, and {@link DashboardService} recomputes
+ * and publishes the stats of marked tenants at a fixed interval.
+ *
+ * Events and heartbeats are written to the emitters on a dedicated thread, not on the request or
+ * scheduler thread that produced them, so a client that is slow to read never holds up a request or
+ * another scheduled job. A single thread keeps each subscriber's events in the order they were published.
+ */
+@Service
+public class TenantEventService implements DisposableBean {
+
+    public static final String DASHBOARD_STATS = "dashboard-stats";
+    public static final String BULK_JOB = "bulk-job";
+    public static final String PAYROLL_EXPORT = "payroll-export";
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantEventService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Duration emitterTimeout;
+    private final Map<UUID, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<UUID> changedStatsTenants = ConcurrentHashMap.newKeySet();
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("sse-fan-out-"));
+
+    public TenantEventService(ObjectMapper objectMapper,
+                              @Value("${app.events.emitter-timeout:PT30M}") Duration emitterTimeout) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeout = emitterTimeout;
+    }
+
+    /**
+     * Opens an event stream for a tenant. The stream is closed after app.events.emitter-timeout,
+     * after which the client is expected to reconnect.
+     *
+     * @param tenantId The ID of the tenant whose events should be received.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(UUID tenantId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        subscribers.compute(tenantId, (id, tenantSubscribers) -> {
+            Set<SseEmitter> updated = tenantSubscribers != null ? tenantSubscribers : new CopyOnWriteArraySet<>();
+            updated.add(emitter);
+            return updated;
+        });
+
+        Runnable remove = () -> unsubscribe(tenantId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    public boolean hasSubscribers(UUID tenantId) {
+        Set<SseEmitter> tenantSubscribers = subscribers.get(tenantId);
+        return tenantSubscribers != null && !tenantSubscribers.isEmpty();
+    }
+
+    /**
+     * Sends an event to a single subscriber, e.g. the current state right after it subscribed.
+     */
+    public void send(UUID tenantId, SseEmitter emitter, String eventName, Object payload) {
+        String data = serialize(payload);
+        if (data != null) {
+            fanOut(() -> send(tenantId, emitter, SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON)));
+        }
+    }
+
+    /**
+     * Sends an event to every subscriber of the tenant. Does nothing if nobody is listening.
+     */
+    public void publish(UUID tenantId, String eventName, Object payload) {
+        Set<SseEmitter> tenantSubscribers = subscribers.get(tenantId);
+        if (tenantSubscribers == null || tenantSubscribers.isEmpty()) {
+            return;
+        }
+        String data = serialize(payload);
+        if (data == null) {
+            return;
+        }
+        fanOut(() -> {
+            for (SseEmitter emitter : tenantSubscribers) {
+                send(tenantId, emitter, SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    /**
+     * Like {@link #publish}, but waits until the current transaction (if any) commits, so subscribers
+     * never see a change that is rolled back or is not yet visible to a follow-up request.
+     */
+    public void publishAfterCommit(UUID tenantId, String eventName, Object payload) {
+        if (hasSubscribers(tenantId)) {
+            afterCommit(() -> publish(tenantId, eventName, payload));
+        }
+    }
+
+    /**
+     * Marks the tenant's dashboard statistics as changed once the current transaction (if any) commits.
+     */
+    public void markStatsChanged(UUID tenantId) {
+        if (hasSubscribers(tenantId)) {
+            afterCommit(() -> changedStatsTenants.add(tenantId));
+        }
+    }
+
+    /**
+     * Returns the tenants whose statistics changed since the last call and that still have subscribers,
+     * clearing the marks.
+     */
+    public List<UUID> drainStatsChanges() {
+        List<UUID> changed = new ArrayList<>();
+        for (UUID tenantId : changedStatsTenants) {
+            changedStatsTenants.remove(tenantId);
+            if (hasSubscribers(tenantId)) {
+                changed.add(tenantId);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Keeps idle streams open through proxies and detects clients that went away without closing.
+     */
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        fanOut(() -> subscribers.forEach((tenantId, tenantSubscribers) -> {
+            for (SseEmitter emitter : tenantSubscribers) {
+                send(tenantId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private void fanOut(Runnable sends) {
+        try {
+            fanOutExecutor.execute(sends);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the streams are being closed anyway
+            logger.debug("Dropped event fan-out during shutdown");
+        }
+    }
+
+    private void send(UUID tenantId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected; completing the emitter releases the request
+            unsubscribe(tenantId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(UUID tenantId, SseEmitter emitter) {
+        subscribers.computeIfPresent(tenantId, (id, tenantSubscribers) -> {
+            tenantSubscribers.remove(emitter);
+            return tenantSubscribers.isEmpty() ? null : tenantSubscribers;
+        });
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize event payload of type {}", payload.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
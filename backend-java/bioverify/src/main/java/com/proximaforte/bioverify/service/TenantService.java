@@ -20,6 +20,8 @@ public class TenantService {
 
     private final TenantRepository tenantRepository;
     private final ObjectMapper objectMapper;
+    private final SotClientRegistry sotClientRegistry;
+    private final RecordStatusCounterService recordStatusCounterService;
 
     @Transactional
     public Tenant createTenant(CreateTenantRequest request) {
@@ -35,6 +37,7 @@ public class TenantService {
         config.setClientSecretEncrypted(request.getClientSecretEncrypted());
         config.setAesKey(request.getAesKey());
         config.setIv(request.getIv());
+        config.setMaxConcurrentLookups(request.getMaxConcurrentLookups());
 
         // Create the new Tenant entity from the DTO
         Tenant tenant = new Tenant();
@@ -83,6 +86,7 @@ public class TenantService {
         config.setClientSecretEncrypted(request.getClientSecretEncrypted());
         config.setAesKey(request.getAesKey());
         config.setIv(request.getIv());
+        config.setMaxConcurrentLookups(request.getMaxConcurrentLookups());
 
         try {
             tenant.setIdentitySourceConfig(objectMapper.writeValueAsString(config));
@@ -90,6 +94,8 @@ public class TenantService {
             throw new RuntimeException("Failed to serialize identity source config for update", e);
         }
 
+        // Drop the cached SoT client so lookups pick up the new configuration
+        sotClientRegistry.invalidate(id);
         return tenantRepository.save(tenant);
     }
 
@@ -99,5 +105,7 @@ public class TenantService {
             throw new IllegalStateException("Tenant not found with id: " + id);
         }
         tenantRepository.deleteById(id);
+        recordStatusCounterService.deleteCounters(id);
+        sotClientRegistry.invalidate(id);
     }
 }
\ No newline at end of file
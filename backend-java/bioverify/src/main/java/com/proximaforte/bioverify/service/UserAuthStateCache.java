@@ -0,0 +1,55 @@
+package com.proximaforte.bioverify.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.repository.UserRepository;
+import com.proximaforte.bioverify.repository.UserRepository.AuthState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A short-lived cache of each user's enabled flag, role and tenant, used to decide whether a token
+ * whose principal was rebuilt from its claims is still honoured.
+ *
+ * A token is rejected once its user is deleted or disabled, or their role or tenant no longer match
+ * the claims, at the latest one TTL after the change. Hit/miss metrics are published under the
+ * "jwt.auth-state" cache name.
+ */
+@Component
+public class UserAuthStateCache {
+
+    private final LoadingCache<UUID, Optional<AuthState>> cache;
+
+    public UserAuthStateCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${application.security.jwt.revocation-cache.ttl:PT30S}") Duration ttl,
+                              @Value("${application.security.jwt.revocation-cache.maximum-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userRepository::findAuthStateById);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.auth-state");
+    }
+
+    /**
+     * @param principal A principal rebuilt from token claims.
+     * @return Whether the user still exists, is enabled and has the role and tenant the token claims.
+     */
+    public boolean isCurrent(User principal) {
+        UUID claimedTenantId = principal.getTenant() != null ? principal.getTenant().getId() : null;
+        return cache.get(principal.getId())
+                .filter(AuthState::isEnabled)
+                .filter(state -> state.getRole() == principal.getRole())
+                .filter(state -> Objects.equals(state.getTenantId(), claimedTenantId))
+                .isPresent();
+    }
+}
@@ -11,8 +11,9 @@ import com.proximaforte.bioverify.dto.DepartmentDto;
 import com.proximaforte.bioverify.dto.MinistryDto;
 import com.proximaforte.bioverify.dto.ReviewerDataDto;
 import com.proximaforte.bioverify.repository.DepartmentRepository;
-import com.proximaforte.bioverify.repository.MasterListRecordRepository;
 import com.proximaforte.bioverify.repository.MinistryRepository;
+import com.proximaforte.bioverify.repository.ReviewerRecordAssignmentRepository;
+import com.proximaforte.bioverify.repository.ReviewerRecordAssignmentRepository.ReviewerWorkload;
 import com.proximaforte.bioverify.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -32,10 +34,12 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final MasterListRecordRepository recordRepository;
+    private final ReviewerRecordAssignmentRepository assignmentRepository;
+    private final ReviewerAssignmentIndexService reviewerAssignmentIndexService;
     private final PasswordEncoder passwordEncoder;
     private final MinistryRepository ministryRepository;
     private final DepartmentRepository departmentRepository;
+    private final TenantEventService tenantEventService;
 
     public List<User> getUsersForTenant(UUID tenantId) {
         return userRepository.findAllByTenantId(tenantId);
@@ -43,28 +47,21 @@ public class UserService {
     
     @Transactional(readOnly = true)
     public List<ReviewerDataDto> getReviewersForTenant(UUID tenantId) {
-        List<User> reviewers = userRepository.findByTenantIdAndRole(tenantId, Role.REVIEWER);
+        // Reviewers and their assignments in one query, workloads for all of them in another
+        List<User> reviewers = userRepository.findByTenantIdAndRoleWithAssignments(tenantId, Role.REVIEWER);
         
         // Count records awaiting review for workload distribution
         List<RecordStatus> statusesToCount = List.of(RecordStatus.AWAITING_REVIEW, RecordStatus.FLAGGED_DATA_MISMATCH);
+        Map<UUID, Long> workloads = assignmentRepository.countQueuesByReviewer(tenantId, statusesToCount).stream()
+                .collect(Collectors.toMap(ReviewerWorkload::getReviewerId, ReviewerWorkload::getRecordCount));
 
         return reviewers.stream().map(reviewer -> {
-            long count = 0;
-            User reviewerWithAssignments = userRepository.findUserWithAssignments(reviewer.getId()).orElse(reviewer);
-
-            if (!reviewerWithAssignments.getAssignedMinistries().isEmpty() || !reviewerWithAssignments.getAssignedDepartments().isEmpty()) {
-                count = recordRepository.findRecordsByReviewerAssignments(
-                    tenantId,
-                    statusesToCount,
-                    reviewerWithAssignments.getAssignedDepartments(),
-                    reviewerWithAssignments.getAssignedMinistries()
-                ).size();
-            }
+            long count = workloads.getOrDefault(reviewer.getId(), 0L);
             
-            Set<MinistryDto> ministryDtos = reviewerWithAssignments.getAssignedMinistries().stream()
+            Set<MinistryDto> ministryDtos = reviewer.getAssignedMinistries().stream()
                     .map(MinistryDto::new)
                     .collect(Collectors.toSet());
-            Set<DepartmentDto> departmentDtos = reviewerWithAssignments.getAssignedDepartments().stream()
+            Set<DepartmentDto> departmentDtos = reviewer.getAssignedDepartments().stream()
                     .map(DepartmentDto::new)
                     .collect(Collectors.toSet());
 
@@ -92,7 +89,9 @@ public class UserService {
         user.setRole(request.getRole());
         user.setTenant(tenant);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        tenantEventService.markStatsChanged(tenant.getId());
+        return savedUser;
     }
     
     @Transactional
@@ -110,6 +109,8 @@ public class UserService {
         reviewer.setAssignedMinistries(ministries);
         reviewer.setAssignedDepartments(departments);
 
-        return userRepository.save(reviewer);
+        User savedReviewer = userRepository.saveAndFlush(reviewer);
+        reviewerAssignmentIndexService.refreshForReviewer(savedReviewer.getId());
+        return savedReviewer;
     }
 }
\ No newline at end of file
@@ -4,20 +4,24 @@ import com.proximaforte.bioverify.service.FileStorageService;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 @Service
 @Slf4j
 public class LocalFileStorageService implements FileStorageService {
 
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     @Value("${app.storage.upload-dir:./storage/uploads}")
     private String uploadDir;
 
@@ -33,6 +37,38 @@ public class LocalFileStorageService implements FileStorageService {
 
     @Override
     public String save(byte[] content, String fileName) throws IOException {
+        Path destinationFile = resolveDestination(fileName);
+
+        Files.write(destinationFile, content);
+        log.info("Saved file to: {}", destinationFile);
+
+        return fileName;
+    }
+
+    /**
+     * Streams the content into a temporary file next to the destination and moves it into place once
+     * it is complete, so a failed or partial write never leaves a truncated file under the final name.
+     */
+    @Override
+    public String save(String fileName, ContentWriter writer) throws IOException {
+        Path destinationFile = resolveDestination(fileName);
+        Path partFile = destinationFile.resolveSibling(destinationFile.getFileName() + ".part");
+
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile), WRITE_BUFFER_SIZE)) {
+                writer.writeTo(out);
+            }
+            Files.move(partFile, destinationFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        log.info("Saved file to: {}", destinationFile);
+
+        return fileName;
+    }
+
+    private Path resolveDestination(String fileName) throws IOException {
         if (fileName == null || fileName.isBlank() || fileName.contains("..")) {
             throw new IOException("File name is invalid or contains path traversal characters.");
         }
@@ -47,11 +83,7 @@ public class LocalFileStorageService implements FileStorageService {
             log.error("Root: [{}], Destination: [{}]", this.rootLocation, destinationFile);
             throw new IOException("Cannot store file outside current directory.");
         }
-
-        Files.write(destinationFile, content);
-        log.info("Saved file to: {}", destinationFile);
-
-        return fileName;
+        return destinationFile;
     }
 
     @Override
@@ -69,19 +101,17 @@ public class LocalFileStorageService implements FileStorageService {
 
     /**
      * Implementation for loading a file as a Resource.
+     * The file is read from disk only as the resource is streamed, never loaded into memory up front.
      */
     @Override
     public Resource loadAsResource(String filename) {
-        try {
-            Path file = rootLocation.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
-                throw new RuntimeException("Could not read file: " + filename);
-            }
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Could not read file: " + filename, e);
+        if (filename == null || filename.isBlank()) {
+            throw new IllegalArgumentException("File identifier cannot be empty.");
+        }
+        Path file = rootLocation.resolve(filename).normalize();
+        if (!file.startsWith(rootLocation) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new RuntimeException("Could not read file: " + filename);
         }
+        return new FileSystemResource(file);
     }
 }
\ No newline at end of file
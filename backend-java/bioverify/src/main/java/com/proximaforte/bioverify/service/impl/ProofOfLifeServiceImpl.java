@@ -47,6 +47,7 @@ public class ProofOfLifeServiceImpl implements ProofOfLifeService {
     private final EmployeeIdService employeeIdService;
     private final AuthenticationService authenticationService;
     private final DocumentValidationService documentValidationService;
+    private final RecordStatusCounterService recordStatusCounterService;
 
     /**
      * Constructor injection for all required services.
@@ -56,12 +57,14 @@ public class ProofOfLifeServiceImpl implements ProofOfLifeService {
                                   FileStorageService fileStorageService,
                                   EmployeeIdService employeeIdService,
                                   AuthenticationService authenticationService,
-                                  DocumentValidationService documentValidationService) {
+                                  DocumentValidationService documentValidationService,
+                                  RecordStatusCounterService recordStatusCounterService) {
         this.recordRepository = recordRepository;
         this.fileStorageService = fileStorageService;
         this.employeeIdService = employeeIdService;
         this.authenticationService = authenticationService;
         this.documentValidationService = documentValidationService;
+        this.recordStatusCounterService = recordStatusCounterService;
     }
 
     /**
@@ -108,7 +111,7 @@ public class ProofOfLifeServiceImpl implements ProofOfLifeService {
 
             // Path A: Document validation failed - flag for manual review
             if (!areDocumentsValid) {
-                record.setStatus(RecordStatus.FLAGGED_INVALID_DOCUMENT);
+                recordStatusCounterService.changeStatus(record, RecordStatus.FLAGGED_INVALID_DOCUMENT);
                 
                 // Store email even on failure for potential manual approval
                 record.setEmail(email);
@@ -155,7 +158,7 @@ public class ProofOfLifeServiceImpl implements ProofOfLifeService {
             // Step 7: Finalize record activation
             record.setWid(wid);                          // Assign unique Work ID
             record.setUser(employeeUser);                // Link to created user account
-            record.setStatus(RecordStatus.ACTIVE);       // Mark as fully active
+            recordStatusCounterService.changeStatus(record, RecordStatus.ACTIVE); // Mark as fully active
             
             // Step 8: Schedule liveness check requirements
             record.setLastLivenessCheckDate(LocalDate.now());
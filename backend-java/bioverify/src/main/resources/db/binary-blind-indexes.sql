@@ -0,0 +1,29 @@
+-- =======================================
+-- Binary storage for blind index columns
+-- =======================================
+-- Converts psn_hash, ssid_hash and nin_hash on master_list_records from 64-char hex
+-- strings to raw 32-byte bytea digests (see BlindIndexConverter). The unique indexes on
+-- these columns are rebuilt by ALTER COLUMN ... TYPE, at roughly half their previous size.
+--
+-- Hibernate's ddl-auto=update does not change existing column types, so this script must be
+-- run once against databases created before the switch, before starting the new version.
+-- It is safe to run more than once.
+
+DO $$
+DECLARE
+    col TEXT;
+BEGIN
+    FOREACH col IN ARRAY ARRAY['psn_hash', 'ssid_hash', 'nin_hash'] LOOP
+        IF EXISTS (
+            SELECT 1 FROM information_schema.columns
+            WHERE table_name = 'master_list_records'
+              AND column_name = col
+              AND data_type <> 'bytea'
+        ) THEN
+            EXECUTE format(
+                'ALTER TABLE master_list_records ALTER COLUMN %I TYPE bytea USING decode(%I, ''hex'')',
+                col, col
+            );
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,167 @@
+package com.proximaforte.bioverify.repository;
+
+import com.proximaforte.bioverify.domain.Department;
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import com.proximaforte.bioverify.domain.Ministry;
+import com.proximaforte.bioverify.domain.Tenant;
+import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.domain.enums.Role;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that record lists are read as projections in a single SQL statement, however many records a
+ * page holds: no per-row lazy loading of department, ministry or validator.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bioverify;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "application.security.encryption.secret=test-secret"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MasterListRecordProjectionQueryTest {
+
+    private static final int RECORD_COUNT = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MasterListRecordRepository recordRepository;
+
+    private Statistics statistics;
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = new Tenant();
+        tenant.setName("Test State");
+        tenant.setSubdomain("test");
+        tenant.setStateCode("TS");
+        entityManager.persist(tenant);
+
+        Ministry ministry = new Ministry();
+        ministry.setName("Finance");
+        ministry.setTenant(tenant);
+        entityManager.persist(ministry);
+
+        Department department = new Department();
+        department.setName("Payroll");
+        department.setTenant(tenant);
+        entityManager.persist(department);
+
+        User validator = new User();
+        validator.setEmail("reviewer@test.example");
+        validator.setPassword("secret");
+        validator.setFullName("Test Reviewer");
+        validator.setRole(Role.REVIEWER);
+        validator.setTenant(tenant);
+        entityManager.persist(validator);
+
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            MasterListRecord record = new MasterListRecord();
+            record.setTenant(tenant);
+            record.setWid("WID-" + i);
+            record.setFullName("Employee Number " + i);
+            record.setStatus(RecordStatus.AWAITING_REVIEW);
+            record.setMinistry(ministry);
+            record.setDepartment(department);
+            record.setValidatedBy(validator);
+            record.setValidatedAt(Instant.now());
+            if (i % 2 == 0) {
+                record.getDocumentUrls().add(documentUrl(i, 1));
+                record.getDocumentUrls().add(documentUrl(i, 2));
+            }
+            entityManager.persist(record);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, RECORD_COUNT})
+    void queuePageIsReadInOneStatementWhateverItsSize(int size) {
+        List<MasterListRecordDto> page = recordRepository.findQueuePage(queueFilter(), null, size);
+
+        assertThat(page).hasSize(size).allSatisfy(this::assertJoinedColumnsPresent);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void followingQueuePageIsReadInOneStatement() {
+        List<MasterListRecordDto> firstPage = recordRepository.findQueuePage(queueFilter(), null, 10);
+        statistics.clear();
+
+        List<MasterListRecordDto> nextPage = recordRepository.findQueuePage(queueFilter(),
+                RecordCursor.of(firstPage.get(firstPage.size() - 1)), 10);
+
+        assertThat(nextPage).hasSize(10).allSatisfy(this::assertJoinedColumnsPresent);
+        assertThat(nextPage).extracting(MasterListRecordDto::getId)
+                .doesNotContainAnyElementsOf(firstPage.stream().map(MasterListRecordDto::getId).toList());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tenantRecordStreamIsReadInOneStatement() {
+        try (Stream<MasterListRecordDto> records = recordRepository.streamRecordDtosByTenantId(tenant.getId())) {
+            assertThat(records.toList()).hasSize(RECORD_COUNT).allSatisfy(this::assertJoinedColumnsPresent);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pageDocumentUrlsAreReadInOneStatement() {
+        List<MasterListRecordDto> page = recordRepository.findQueuePage(queueFilter(), null, 10);
+        statistics.clear();
+
+        List<MasterListRecordRepository.RecordDocumentUrl> urls =
+                recordRepository.findDocumentUrlsByRecordIds(page.stream().map(MasterListRecordDto::getId).toList());
+
+        // Half of the page's records have two documents each
+        assertThat(urls).hasSize(10);
+        assertThat(urls).extracting(MasterListRecordRepository.RecordDocumentUrl::getRecordId)
+                .isSubsetOf(page.stream().map(MasterListRecordDto::getId).toList());
+        assertThat(urls).extracting(MasterListRecordRepository.RecordDocumentUrl::getDocumentUrl)
+                .allSatisfy(url -> assertThat(url).startsWith("/documents/WID-"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private static String documentUrl(int record, int document) {
+        return "/documents/WID-" + record + "-" + document + ".pdf";
+    }
+
+    private RecordQueueFilter queueFilter() {
+        return new RecordQueueFilter(tenant.getId(), List.of(RecordStatus.AWAITING_REVIEW), null, null, null);
+    }
+
+    private void assertJoinedColumnsPresent(MasterListRecordDto record) {
+        assertThat(record.getMinistry()).isEqualTo("Finance");
+        assertThat(record.getDepartment()).isEqualTo("Payroll");
+        assertThat(record.getValidatedByEmail()).isEqualTo("reviewer@test.example");
+        assertThat(record.getFullName()).startsWith("Employee Number ");
+    }
+}
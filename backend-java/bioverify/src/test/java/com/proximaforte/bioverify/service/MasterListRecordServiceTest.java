@@ -0,0 +1,88 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.domain.Tenant;
+import com.proximaforte.bioverify.domain.User;
+import com.proximaforte.bioverify.domain.enums.RecordStatus;
+import com.proximaforte.bioverify.domain.enums.Role;
+import com.proximaforte.bioverify.dto.KeysetPage;
+import com.proximaforte.bioverify.dto.MasterListRecordDto;
+import com.proximaforte.bioverify.dto.QueuePageRequestDto;
+import com.proximaforte.bioverify.repository.MasterListRecordRepository;
+import com.proximaforte.bioverify.repository.MasterListRecordRepository.RecordDocumentUrl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MasterListRecordServiceTest {
+
+    @Mock
+    private MasterListRecordRepository recordRepository;
+
+    @InjectMocks
+    private MasterListRecordService recordService;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(recordService, "defaultQueuePageSize", 50);
+        ReflectionTestUtils.setField(recordService, "maxQueuePageSize", 200);
+
+        Tenant tenant = new Tenant();
+        tenant.setId(UUID.randomUUID());
+        admin = new User();
+        admin.setRole(Role.TENANT_ADMIN);
+        admin.setTenant(tenant);
+    }
+
+    @Test
+    void invalidDocumentQueueCarriesDocumentUrls() {
+        MasterListRecordDto withDocuments = queueRecord();
+        MasterListRecordDto withoutDocuments = queueRecord();
+        when(recordRepository.findQueuePage(any(), isNull(), anyInt())).thenReturn(List.of(withDocuments, withoutDocuments));
+        when(recordRepository.countQueue(any())).thenReturn(2L);
+        when(recordRepository.findDocumentUrlsByRecordIds(List.of(withDocuments.getId(), withoutDocuments.getId())))
+                .thenReturn(List.of(documentUrl(withDocuments, "/documents/a.pdf"), documentUrl(withDocuments, "/documents/b.pdf")));
+
+        KeysetPage<MasterListRecordDto> page = recordService.getInvalidDocumentQueue(admin, new QueuePageRequestDto());
+
+        assertThat(page.getItems()).containsExactly(withDocuments, withoutDocuments);
+        assertThat(withDocuments.getDocumentUrls()).containsExactly("/documents/a.pdf", "/documents/b.pdf");
+        assertThat(withoutDocuments.getDocumentUrls()).isEmpty();
+    }
+
+    private static MasterListRecordDto queueRecord() {
+        return new MasterListRecordDto(UUID.randomUUID(), "WID-1", "Ada Obi", null, null, null, "Payroll", "Finance",
+                null, null, RecordStatus.FLAGGED_INVALID_DOCUMENT, null, null, null, Instant.now(), null, null, null,
+                null, null, null, null, null);
+    }
+
+    private static RecordDocumentUrl documentUrl(MasterListRecordDto record, String url) {
+        return new RecordDocumentUrl() {
+            @Override
+            public UUID getRecordId() {
+                return record.getId();
+            }
+
+            @Override
+            public String getDocumentUrl() {
+                return url;
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.proximaforte.bioverify.service;
+
+import com.proximaforte.bioverify.domain.MasterListRecord;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks how the full name is split into the firstName, middleName and surname columns: the same result
+ * as trimming the name and splitting it on runs of whitespace (regex \s+).
+ */
+class PayrollRowWriterTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Ada|Ada||",
+            "Ada Obi|Ada||Obi",
+            "Ada Chioma Obi|Ada|Chioma|Obi",
+            "Ada Chioma Nkem Obi|Ada|Chioma Nkem|Obi",
+            "'Ada   Chioma    Nkem  Obi'|Ada|Chioma Nkem|Obi",
+            "'Ada\tChioma \t Obi'|Ada|Chioma|Obi",
+            "'  Ada Chioma Obi  '|Ada|Chioma|Obi",
+            "'\t Ada Obi \t'|Ada||Obi",
+            "'  Ada  '|Ada||"
+    })
+    void splitsFullNameOnWhitespace(String fullName, String firstName, String middleName, String surname) throws IOException {
+        assertThat(nameColumns(fullName)).containsExactly(orEmpty(firstName), orEmpty(middleName), orEmpty(surname));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "   ", "\t", " \t\r\n "})
+    void writesEmptyNameColumnsForNullOrBlankName(String fullName) throws IOException {
+        assertThat(nameColumns(fullName)).containsExactly("", "", "");
+    }
+
+    @Test
+    void doesNotCarryNamePartsOverToTheNextRow() throws IOException {
+        StringWriter out = new StringWriter();
+        PayrollRowWriter writer = new PayrollRowWriter(new CSVPrinter(out, CSVFormat.DEFAULT));
+        writer.write(recordNamed("Ada Chioma Obi"));
+        writer.write(recordNamed("Bola"));
+
+        List<CSVRecord> rows = parse(out.toString());
+        assertThat(nameColumns(rows.get(1))).containsExactly("Bola", "", "");
+    }
+
+    private static List<String> nameColumns(String fullName) throws IOException {
+        StringWriter out = new StringWriter();
+        new PayrollRowWriter(new CSVPrinter(out, CSVFormat.DEFAULT)).write(recordNamed(fullName));
+        return nameColumns(parse(out.toString()).get(0));
+    }
+
+    private static List<String> nameColumns(CSVRecord row) {
+        int firstNameColumn = PayrollRowWriter.HEADERS.indexOf("firstName");
+        return List.of(row.get(firstNameColumn), row.get(firstNameColumn + 1), row.get(firstNameColumn + 2));
+    }
+
+    private static List<CSVRecord> parse(String csv) throws IOException {
+        try (CSVParser parser = CSVParser.parse(new StringReader(csv), CSVFormat.DEFAULT)) {
+            return parser.getRecords();
+        }
+    }
+
+    private static MasterListRecord recordNamed(String fullName) {
+        MasterListRecord record = new MasterListRecord();
+        record.setFullName(fullName);
+        return record;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpErrorResponse, HttpEvent, HttpRequest } from '@angular/common/http';
-import { Observable, BehaviorSubject, throwError } from 'rxjs';
-import { catchError, tap } from 'rxjs/operators';
+import { HttpClient, HttpErrorResponse, HttpEvent, HttpParams, HttpRequest, HttpResponse } from '@angular/common/http';
+import { Observable, BehaviorSubject, EMPTY, throwError } from 'rxjs';
+import { catchError, expand, reduce, tap } from 'rxjs/operators';
 import { Tenant, UpdateTenantRequest } from '../models/tenant.model';
 import { User } from '../models/user.model';
 import { Ministry } from '../models/ministry.model';
@@ -51,6 +51,9 @@ export interface ReviewerData {
   assignedDepartments: Department[];
 }
 
+// Largest page the record queue endpoints return (app.records.queue.max-page-size)
+const QUEUE_PAGE_SIZE = 200;
+
 @Injectable({
   providedIn: 'root'
 })
@@ -180,15 +183,11 @@ export class TenantService {
   }
 
   getFlaggedNotInSot(): Observable<MasterListRecordDto[]> {
-    return this.http.get<MasterListRecordDto[]>(`${this.v1ApiUrl}/records/flagged/not-in-sot`).pipe(
-      catchError(this.handleError)
-    );
+    return this.getAllQueuePages(`${this.v1ApiUrl}/records/flagged/not-in-sot`);
   }
 
   getInvalidDocumentQueue(): Observable<MasterListRecordDto[]> {
-    return this.http.get<MasterListRecordDto[]>(`${this.v1ApiUrl}/records/queue/invalid-documents`).pipe(
-      catchError(this.handleError)
-    );
+    return this.getAllQueuePages(`${this.v1ApiUrl}/records/queue/invalid-documents`);
   }
 
   uploadMasterList(file: File): Observable<HttpEvent<any>> {
@@ -202,15 +201,11 @@ export class TenantService {
   }
 
   getAwaitingReviewQueue(): Observable<MasterListRecordDto[]> {
-    return this.http.get<MasterListRecordDto[]>(`${this.v1ApiUrl}/records/queue/awaiting-review`).pipe(
-      catchError(this.handleError)
-    );
+    return this.getAllQueuePages(`${this.v1ApiUrl}/records/queue/awaiting-review`);
   }
 
   getMismatchedQueue(): Observable<MasterListRecordDto[]> {
-    return this.http.get<MasterListRecordDto[]>(`${this.v1ApiUrl}/records/queue/mismatched`).pipe(
-      catchError(this.handleError)
-    );
+    return this.getAllQueuePages(`${this.v1ApiUrl}/records/queue/mismatched`);
   }
 
   updateRecord(recordId: string, recordData: Partial<MasterListRecordDto>): Observable<MasterListRecordDto> {
@@ -274,6 +269,29 @@ export class TenantService {
     );
   }
   
+  /**
+   * Reads a whole record queue. The queue endpoints are keyset-paginated, so pages are requested one
+   * after another, passing each page's X-Next-Cursor header as the cursor of the next, until the last page.
+   */
+  private getAllQueuePages(url: string): Observable<MasterListRecordDto[]> {
+    const getPage = (cursor: string | null): Observable<HttpResponse<MasterListRecordDto[]>> => {
+      let params = new HttpParams().set('size', QUEUE_PAGE_SIZE);
+      if (cursor) {
+        params = params.set('cursor', cursor);
+      }
+      return this.http.get<MasterListRecordDto[]>(url, { params, observe: 'response' });
+    };
+
+    return getPage(null).pipe(
+      expand(response => {
+        const nextCursor = response.headers.get('X-Next-Cursor');
+        return nextCursor ? getPage(nextCursor) : EMPTY;
+      }),
+      reduce((records: MasterListRecordDto[], response) => records.concat(response.body ?? []), []),
+      catchError(this.handleError)
+    );
+  }
+
   private handleError(error: HttpErrorResponse) {
     let errorMessage = 'An error occurred';
     if (error.error instanceof ErrorEvent) {